@@ -24,9 +24,11 @@ import com.alibaba.nacos.api.annotation.NacosProperties;
 import com.alibaba.nacos.api.config.ConfigService;
 import com.alibaba.nacos.api.config.annotation.NacosConfigListener;
 import com.alibaba.nacos.api.config.convert.NacosConfigConverter;
+import com.alibaba.nacos.api.config.listener.Listener;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.spring.beans.factory.annotation.ConfigServiceBeanBuilder;
 import com.alibaba.nacos.spring.context.event.AnnotationListenerMethodProcessor;
+import com.alibaba.nacos.spring.context.event.config.EventPublishingConfigService;
 import com.alibaba.nacos.spring.context.event.config.NacosConfigMetadataEvent;
 import com.alibaba.nacos.spring.context.event.config.TimeoutNacosConfigListener;
 import com.alibaba.nacos.spring.convert.converter.config.DefaultNacosConfigConverter;
@@ -109,20 +111,30 @@ public class NacosConfigListenerMethodProcessor
 		ConfigService configService = configServiceBeanBuilder
 				.build(listener.properties());
 
+		Listener timeoutListener = new TimeoutNacosConfigListener(dataId, groupId,
+				timeout) {
+
+			@Override
+			protected void onReceived(String config) {
+				Class<?> targetType = method.getParameterTypes()[0];
+				NacosConfigConverter configConverter = determineNacosConfigConverter(
+						targetType, listener, type);
+				Object parameterValue = configConverter.convert(config);
+				// Execute target method
+				ReflectionUtils.invokeMethod(method, bean, parameterValue);
+			}
+		};
+
 		try {
-			configService.addListener(dataId, groupId,
-					new TimeoutNacosConfigListener(dataId, groupId, timeout) {
-
-						@Override
-						protected void onReceived(String config) {
-							Class<?> targetType = method.getParameterTypes()[0];
-							NacosConfigConverter configConverter = determineNacosConfigConverter(
-									targetType, listener, type);
-							Object parameterValue = configConverter.convert(config);
-							// Execute target method
-							ReflectionUtils.invokeMethod(method, bean, parameterValue);
-						}
-					});
+			// The content is decoded by the listener adapter of
+			// EventPublishingConfigService
+			if (configService instanceof EventPublishingConfigService) {
+				((EventPublishingConfigService) configService).addListener(dataId,
+						groupId, type, timeoutListener);
+			}
+			else {
+				configService.addListener(dataId, groupId, timeoutListener);
+			}
 		}
 		catch (NacosException e) {
 			logger.error("ConfigService can't add Listener for dataId : " + dataId
@@ -120,7 +120,8 @@ class NacosPropertySourceBuilder {
 			return null;
 		}
 
-		Properties properties = toProperties(dataId, groupId, config, type);
+		Properties properties = toProperties(dataId, groupId, config, type,
+				environment);
 
 		if (!StringUtils.hasText(name)) {
 			name = buildDefaultPropertySourceName(dataId, groupId, properties);
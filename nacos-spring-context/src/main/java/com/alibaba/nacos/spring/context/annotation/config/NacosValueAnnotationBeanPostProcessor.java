@@ -19,32 +19,51 @@ package com.alibaba.nacos.spring.context.annotation.config;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.alibaba.nacos.api.config.annotation.NacosValue;
-import com.alibaba.nacos.client.config.utils.MD5;
+import com.alibaba.nacos.spring.context.annotation.config.NacosValueConverter.ConversionKey;
+import com.alibaba.nacos.spring.context.constants.NacosConstants;
 import com.alibaba.nacos.spring.context.event.config.NacosConfigReceivedEvent;
+import com.alibaba.nacos.spring.core.env.NacosCompositePropertySource;
+import com.alibaba.nacos.spring.core.env.NacosPropertySource;
+import com.alibaba.nacos.spring.util.PropertiesDiff;
 import com.alibaba.spring.beans.factory.annotation.AnnotationInjectedBeanPostProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.BeansException;
-import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.annotation.InjectionMetadata;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.util.PropertyPlaceholderHelper;
+import org.springframework.util.PropertyPlaceholderHelper.PlaceholderResolver;
 import org.springframework.util.ReflectionUtils;
 
+import static com.alibaba.nacos.spring.context.annotation.config.NacosValueConverter.DEFAULT_SHARED_CACHE_SIZE;
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_VALUE_ATOMIC_REFRESH;
 import static org.springframework.core.annotation.AnnotationUtils.getAnnotation;
+import static org.springframework.util.ObjectUtils.nullSafeEquals;
 
 /**
  * {@link org.springframework.beans.factory.config.BeanPostProcessor} implementation
@@ -55,7 +74,8 @@ import static org.springframework.core.annotation.AnnotationUtils.getAnnotation;
  */
 public class NacosValueAnnotationBeanPostProcessor extends
 		AnnotationInjectedBeanPostProcessor<NacosValue> implements BeanFactoryAware,
-		EnvironmentAware, ApplicationListener<NacosConfigReceivedEvent> {
+		EnvironmentAware, ApplicationListener<NacosConfigReceivedEvent>,
+		DestructionAwareBeanPostProcessor {
 
 	/**
 	 * The name of {@link NacosValueAnnotationBeanPostProcessor} bean
@@ -64,11 +84,66 @@ public class NacosValueAnnotationBeanPostProcessor extends
 	private static final String PLACEHOLDER_PREFIX = "${";
 	private static final String PLACEHOLDER_SUFFIX = "}";
 	private static final String VALUE_SEPARATOR = ":";
+	private static final PropertyPlaceholderHelper PLACEHOLDER_HELPER = new PropertyPlaceholderHelper(
+			PLACEHOLDER_PREFIX, PLACEHOLDER_SUFFIX, VALUE_SEPARATOR, false);
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 	/**
-	 * placeholder, nacosValueTarget
+	 * placeholder, nacosValueTarget. The placeholder is the whole expression of
+	 * {@link NacosValue#value()}, e.g. <code>${host}:${port}</code>. Targets are
+	 * registered while beans are being created and iterated by the listener threads at
+	 * the same time, so the lists are copy-on-write snapshots.
 	 */
-	private Map<String, List<NacosValueTarget>> placeholderNacosValueTargetMap = new HashMap<String, List<NacosValueTarget>>();
+	private final ConcurrentMap<String, List<NacosValueTarget>> placeholderNacosValueTargetMap = new ConcurrentHashMap<String, List<NacosValueTarget>>();
+
+	/**
+	 * property key, the placeholders depending on it. The keys of a placeholder are
+	 * recorded whenever it is resolved, so that the keys of nested placeholders follow
+	 * the values they are built from.
+	 */
+	private final ConcurrentMap<String, Set<String>> keyPlaceholdersMap = new ConcurrentHashMap<String, Set<String>>();
+
+	/**
+	 * bean class, placeholders of its auto-refreshed members, used to unregister the
+	 * targets of a destroyed bean
+	 */
+	private final ConcurrentMap<Class<?>, Set<String>> beanClassPlaceholdersMap = new ConcurrentHashMap<Class<?>, Set<String>>();
+
+	/**
+	 * the name of {@link NacosPropertySource}, the properties seen on the last event, or
+	 * before the first auto-refreshed value was resolved from it
+	 */
+	private final ConcurrentMap<String, Map<String, Object>> nacosPropertySourceSnapshots = new ConcurrentHashMap<String, Map<String, Object>>();
+
+	/**
+	 * placeholder, the value injected on the last refresh, shared by all targets of
+	 * the placeholder
+	 */
+	private final Map<String, String> lastPlaceholderValues = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Serializes the atomic refreshes, so that their commits are applied in the order
+	 * their values were read
+	 */
+	private final Object atomicRefreshMonitor = new Object();
+
+	/**
+	 * The placeholders of the last aborted atomic refresh, retried by the next one
+	 */
+	private final Set<String> abortedPlaceholders = new HashSet<String>();
+
+	/**
+	 * The version of the values applied by atomic refreshes, odd while a commit is in
+	 * progress
+	 */
+	private volatile long refreshVersion;
+
+	/**
+	 * The converted values of immutable types shared across refreshes
+	 */
+	private final Map<ConversionKey, Object> convertedValueCache = NacosValueConverter
+			.newSharedCache(DEFAULT_SHARED_CACHE_SIZE);
+
+	private boolean atomicRefresh;
 
 	private ConfigurableListableBeanFactory beanFactory;
 
@@ -79,15 +154,25 @@ public class NacosValueAnnotationBeanPostProcessor extends
 			String beanName, Class<?> injectedType,
 			InjectionMetadata.InjectedElement injectedElement) {
 		String annotationValue = annotation.value();
+		if (annotation.autoRefreshed() && isPlaceholder(annotationValue)) {
+			// Know the keys of the placeholder and the properties it is resolved from
+			// before its value is resolved, so that a refresh in between isn't missed
+			snapshotNacosPropertySources();
+			getNacosValueTargets(annotationValue);
+		}
 		String value = beanFactory.resolveEmbeddedValue(annotationValue);
 
 		Member member = injectedElement.getMember();
 		if (member instanceof Field) {
-			return convertIfNecessary((Field) member, value);
+			Field field = (Field) member;
+			return newConverter().convert(value, field, new TypeDescriptor(field));
 		}
 
 		if (member instanceof Method) {
-			return convertIfNecessary((Method) member, value);
+			MethodParameter[] methodParameters = resolveMethodParameters(
+					(Method) member);
+			return convertIfNecessary(newConverter(), methodParameters,
+					resolveTypeDescriptors(methodParameters), value);
 		}
 
 		return null;
@@ -112,6 +197,33 @@ public class NacosValueAnnotationBeanPostProcessor extends
 	@Override
 	public void setEnvironment(Environment environment) {
 		this.environment = environment;
+		this.atomicRefresh = environment.getProperty(NACOS_VALUE_ATOMIC_REFRESH,
+				boolean.class, false);
+	}
+
+	/**
+	 * Set whether the targets affected by a config change are refreshed in two phases:
+	 * all of them are converted first, then the converted values are applied in one
+	 * versioned commit. A conversion failure aborts the refresh before anything is
+	 * applied.
+	 *
+	 * @param atomicRefresh <code>true</code> to refresh atomically
+	 * @see NacosConstants#NACOS_VALUE_ATOMIC_REFRESH
+	 */
+	public void setAtomicRefresh(boolean atomicRefresh) {
+		this.atomicRefresh = atomicRefresh;
+	}
+
+	/**
+	 * Get the version of the values applied by atomic refreshes. The version is odd
+	 * while a commit is in progress, a reader sees a consistent state of the
+	 * auto-refreshed beans if the version read before and after reading them is the
+	 * same even number.
+	 *
+	 * @return the version, <code>0</code> until the first atomic refresh
+	 */
+	public long getRefreshVersion() {
+		return refreshVersion;
 	}
 
 	@Override
@@ -125,59 +237,352 @@ public class NacosValueAnnotationBeanPostProcessor extends
 		return super.postProcessBeforeInitialization(bean, beanName);
 	}
 
+	@Override
+	public void postProcessBeforeDestruction(Object bean, String beanName)
+			throws BeansException {
+		Set<String> placeholders = beanClassPlaceholdersMap.get(bean.getClass());
+		if (placeholders == null) {
+			return;
+		}
+		for (String placeholder : placeholders) {
+			List<NacosValueTarget> beanPropertyList = placeholderNacosValueTargetMap
+					.get(placeholder);
+			if (beanPropertyList != null) {
+				removeTargets(beanPropertyList, bean);
+			}
+		}
+	}
+
+	/**
+	 * Only the beans having auto-refreshed members need a destruction callback, Spring
+	 * 4.3+ calls this method before registering one.
+	 *
+	 * @param bean the bean instance
+	 * @return <code>true</code> if the bean has registered {@link NacosValueTarget}s
+	 */
+	public boolean requiresDestruction(Object bean) {
+		return beanClassPlaceholdersMap.containsKey(bean.getClass());
+	}
+
 	@Override
 	public void onApplicationEvent(NacosConfigReceivedEvent event) {
 		// In to this event receiver, the environment has been updated the
 		// latest configuration information, pull directly from the environment
 		// fix issue #142
-		for (Map.Entry<String, List<NacosValueTarget>> entry : placeholderNacosValueTargetMap
-				.entrySet()) {
-			String key = environment.resolvePlaceholders(entry.getKey());
-			String newValue = environment.getProperty(key);
+		Set<String> changedKeys = resolveChangedKeys(event.getDataId(),
+				event.getGroupId());
+		Set<String> placeholders = changedKeys == null
+				? placeholderNacosValueTargetMap.keySet()
+				: resolveAffectedPlaceholders(changedKeys);
+		// One converter for the whole refresh rather than one per target, the values of
+		// the targets sharing a type are converted once
+		NacosValueConverter converter = newConverter();
+		if (atomicRefresh) {
+			refreshAtomically(placeholders, converter);
+			return;
+		}
+		for (String placeholder : placeholders) {
+			List<NacosValueTarget> beanPropertyList = placeholderNacosValueTargetMap
+					.get(placeholder);
+			if (beanPropertyList != null) {
+				refreshTargets(placeholder, beanPropertyList, converter);
+			}
+		}
+	}
+
+	private Set<String> resolveAffectedPlaceholders(Set<String> changedKeys) {
+		Set<String> placeholders = new HashSet<String>();
+		for (String key : changedKeys) {
+			Set<String> keyPlaceholders = keyPlaceholdersMap.get(key);
+			if (keyPlaceholders != null) {
+				placeholders.addAll(keyPlaceholders);
+			}
+		}
+		return placeholders;
+	}
+
+	private void refreshTargets(String placeholder,
+			List<NacosValueTarget> beanPropertyList, NacosValueConverter converter) {
+		// Serialize the refreshes of a placeholder, so that the value read last from
+		// the environment is the one applied last. Registering targets doesn't take
+		// this monitor.
+		synchronized (beanPropertyList) {
+			String newValue = resolveValue(placeholder);
 			if (newValue == null) {
-				continue;
+				return;
+			}
+			// The value is compared once per placeholder, not once per target
+			String lastValue = lastPlaceholderValues.put(placeholder, newValue);
+			if (newValue.equals(lastValue)) {
+				return;
 			}
-			List<NacosValueTarget> beanPropertyList = entry.getValue();
 			for (NacosValueTarget target : beanPropertyList) {
-				String md5String = MD5.getInstance().getMD5String(newValue);
-				boolean isUpdate = !target.lastMD5.equals(md5String);
-				if (isUpdate) {
-					target.updateLastMD5(md5String);
-					if (target.method == null) {
-						setField(target, newValue);
+				setValue(target, newValue, converter);
+			}
+			// The beans collected by GC without destruction callback, e.g. prototype
+			removeTargets(beanPropertyList, null);
+		}
+	}
+
+	/**
+	 * Convert the new values of all affected targets, then apply them in one commit
+	 * bracketed by {@link #refreshVersion}. Nothing is applied if any conversion fails.
+	 */
+	private void refreshAtomically(Set<String> placeholders,
+			NacosValueConverter converter) {
+		synchronized (atomicRefreshMonitor) {
+			if (!abortedPlaceholders.isEmpty()) {
+				abortedPlaceholders.addAll(placeholders);
+				placeholders = new HashSet<String>(abortedPlaceholders);
+				abortedPlaceholders.clear();
+			}
+			Map<String, String> newValues = new HashMap<String, String>();
+			List<ConvertedValue> convertedValues = new ArrayList<ConvertedValue>();
+			for (String placeholder : placeholders) {
+				List<NacosValueTarget> beanPropertyList = placeholderNacosValueTargetMap
+						.get(placeholder);
+				if (beanPropertyList == null) {
+					continue;
+				}
+				String newValue = resolveValue(placeholder);
+				if (newValue == null
+						|| newValue.equals(lastPlaceholderValues.get(placeholder))) {
+					continue;
+				}
+				newValues.put(placeholder, newValue);
+				for (NacosValueTarget target : beanPropertyList) {
+					Object bean = target.getBean();
+					if (bean == null) {
+						continue;
 					}
-					else {
-						setMethod(target, newValue);
+					try {
+						convertedValues.add(new ConvertedValue(target, bean, newValue,
+								convertValue(target, newValue, converter)));
 					}
+					catch (Throwable e) {
+						logUpdateFailure(target, e);
+						abortedPlaceholders.addAll(placeholders);
+						if (logger.isErrorEnabled()) {
+							logger.error("Abort the refresh of " + newValues.keySet()
+									+ ", none of the values is applied");
+						}
+						return;
+					}
+				}
+			}
+			if (newValues.isEmpty()) {
+				return;
+			}
+			refreshVersion++;
+			try {
+				for (ConvertedValue convertedValue : convertedValues) {
+					injectValue(convertedValue.target, convertedValue.bean,
+							convertedValue.value, convertedValue.propertyValue);
 				}
+				lastPlaceholderValues.putAll(newValues);
+			}
+			finally {
+				refreshVersion++;
+			}
+			for (String placeholder : newValues.keySet()) {
+				removeTargets(placeholderNacosValueTargetMap.get(placeholder), null);
 			}
 		}
 	}
 
-	private Object convertIfNecessary(Field field, Object value) {
-		TypeConverter converter = beanFactory.getTypeConverter();
-		return converter.convertIfNecessary(value, field.getType(), field);
+	/**
+	 * Remove the targets of the bean, or the ones whose bean has been collected if the
+	 * bean is <code>null</code>
+	 */
+	private void removeTargets(List<NacosValueTarget> beanPropertyList, Object bean) {
+		List<NacosValueTarget> removedTargets = null;
+		for (NacosValueTarget target : beanPropertyList) {
+			if (target.getBean() == bean) {
+				if (removedTargets == null) {
+					removedTargets = new ArrayList<NacosValueTarget>();
+				}
+				removedTargets.add(target);
+			}
+		}
+		if (removedTargets != null) {
+			beanPropertyList.removeAll(removedTargets);
+		}
 	}
 
-	private Object convertIfNecessary(Method method, Object value) {
-		Class<?>[] paramTypes = method.getParameterTypes();
-		Object[] arguments = new Object[paramTypes.length];
+	/**
+	 * Resolve the placeholder against the {@link Environment} and record the keys it
+	 * depends on
+	 *
+	 * @param placeholder the expression of {@link NacosValue#value()}
+	 * @return the resolved value, or <code>null</code> if any key can't be resolved
+	 */
+	private String resolveValue(final String placeholder) {
+		final Set<String> keys = new HashSet<String>();
+		try {
+			return PLACEHOLDER_HELPER.replacePlaceholders(placeholder,
+					new PlaceholderResolver() {
+						@Override
+						public String resolvePlaceholder(String key) {
+							keys.add(key);
+							return getRawProperty(key);
+						}
+					});
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+		finally {
+			for (String key : keys) {
+				put2SetMap(keyPlaceholdersMap, key, placeholder);
+			}
+		}
+	}
 
-		TypeConverter converter = beanFactory.getTypeConverter();
+	/**
+	 * Get the property without resolving the placeholders in its value, those are
+	 * resolved by {@link #PLACEHOLDER_HELPER} so that their keys get recorded.
+	 */
+	private String getRawProperty(String key) {
+		if (!(environment instanceof ConfigurableEnvironment)) {
+			return environment.getProperty(key);
+		}
+		for (PropertySource<?> propertySource : ((ConfigurableEnvironment) environment)
+				.getPropertySources()) {
+			Object value = propertySource.getProperty(key);
+			if (value != null) {
+				return value.toString();
+			}
+		}
+		return null;
+	}
+
+	private void setValue(NacosValueTarget target, String value,
+			NacosValueConverter converter) {
+		Object bean = target.getBean();
+		if (bean == null) {
+			return;
+		}
+		Object convertedValue;
+		try {
+			convertedValue = convertValue(target, value, converter);
+		}
+		catch (Throwable e) {
+			logUpdateFailure(target, e);
+			return;
+		}
+		injectValue(target, bean, convertedValue, value);
+	}
+
+	/**
+	 * Resolve the property keys changed by the {@link NacosPropertySource}s of dataId and
+	 * groupId since the last event
+	 *
+	 * @param dataId dataId
+	 * @param groupId groupId
+	 * @return the changed keys, or <code>null</code> if they can't be figured out
+	 */
+	private Set<String> resolveChangedKeys(String dataId, String groupId) {
+		List<NacosPropertySource> nacosPropertySources = getNacosPropertySources();
+		if (nacosPropertySources == null) {
+			return null;
+		}
+		Set<String> changedKeys = new HashSet<String>();
+		for (NacosPropertySource nacosPropertySource : nacosPropertySources) {
+			if (!nullSafeEquals(dataId, nacosPropertySource.getDataId())
+					|| !nullSafeEquals(groupId, nacosPropertySource.getGroupId())) {
+				continue;
+			}
+			Map<String, Object> properties = nacosPropertySource.getSource();
+			Map<String, Object> lastProperties = nacosPropertySourceSnapshots
+					.put(nacosPropertySource.getName(), properties);
+			changedKeys.addAll(PropertiesDiff.diff(lastProperties, properties).getKeys());
+		}
+		return changedKeys;
+	}
+
+	/**
+	 * Record the properties of the {@link NacosPropertySource}s not seen yet, the first
+	 * event of a source is diffed against them. A source added after the last value
+	 * was resolved has no snapshot, all of its keys are new to the targets.
+	 */
+	private void snapshotNacosPropertySources() {
+		List<NacosPropertySource> nacosPropertySources = getNacosPropertySources();
+		if (nacosPropertySources == null) {
+			return;
+		}
+		for (NacosPropertySource nacosPropertySource : nacosPropertySources) {
+			String name = nacosPropertySource.getName();
+			if (!nacosPropertySourceSnapshots.containsKey(name)) {
+				nacosPropertySourceSnapshots.putIfAbsent(name,
+						nacosPropertySource.getSource());
+			}
+		}
+	}
 
-		if (arguments.length == 1) {
-			return converter.convertIfNecessary(value, paramTypes[0],
-					new MethodParameter(method, 0));
+	/**
+	 * Get the {@link NacosPropertySource}s of the environment, including the members of
+	 * the {@link NacosCompositePropertySource}s
+	 *
+	 * @return the sources, or <code>null</code> if the environment isn't configurable
+	 */
+	private List<NacosPropertySource> getNacosPropertySources() {
+		if (!(environment instanceof ConfigurableEnvironment)) {
+			return null;
+		}
+		List<NacosPropertySource> nacosPropertySources = new ArrayList<NacosPropertySource>();
+		for (PropertySource<?> propertySource : ((ConfigurableEnvironment) environment)
+				.getPropertySources()) {
+			if (propertySource instanceof NacosPropertySource) {
+				nacosPropertySources.add((NacosPropertySource) propertySource);
+			}
+			else if (propertySource instanceof NacosCompositePropertySource) {
+				nacosPropertySources.addAll(
+						((NacosCompositePropertySource) propertySource).getPropertySources());
+			}
 		}
+		return nacosPropertySources;
+	}
+
+	private NacosValueConverter newConverter() {
+		return new NacosValueConverter(beanFactory.getTypeConverter(),
+				convertedValueCache);
+	}
+
+	private Object convertIfNecessary(NacosValueConverter converter,
+			MethodParameter[] methodParameters, TypeDescriptor[] typeDescriptors,
+			String value) {
+		if (methodParameters.length == 1) {
+			return converter.convert(value, methodParameters[0], typeDescriptors[0]);
+		}
+
+		Object[] arguments = new Object[methodParameters.length];
 
 		for (int i = 0; i < arguments.length; i++) {
-			arguments[i] = converter.convertIfNecessary(value, paramTypes[i],
-					new MethodParameter(method, i));
+			arguments[i] = converter.convert(value, methodParameters[i],
+					typeDescriptors[i]);
 		}
 
 		return arguments;
 	}
 
+	private static MethodParameter[] resolveMethodParameters(Method method) {
+		MethodParameter[] methodParameters = new MethodParameter[method
+				.getParameterTypes().length];
+		for (int i = 0; i < methodParameters.length; i++) {
+			methodParameters[i] = new MethodParameter(method, i);
+		}
+		return methodParameters;
+	}
+
+	private static TypeDescriptor[] resolveTypeDescriptors(
+			MethodParameter[] methodParameters) {
+		TypeDescriptor[] typeDescriptors = new TypeDescriptor[methodParameters.length];
+		for (int i = 0; i < typeDescriptors.length; i++) {
+			typeDescriptors[i] = new TypeDescriptor(methodParameters[i]);
+		}
+		return typeDescriptors;
+	}
+
 	private void doWithFields(final Object bean, final String beanName) {
 		ReflectionUtils.doWithFields(bean.getClass(),
 				new ReflectionUtils.FieldCallback() {
@@ -210,103 +615,162 @@ public class NacosValueAnnotationBeanPostProcessor extends
 			}
 
 			if (annotation.autoRefreshed()) {
-				String placeholder = resolvePlaceholder(annotation.value());
+				String placeholder = annotation.value();
 
-				if (placeholder == null) {
+				if (!isPlaceholder(placeholder)) {
 					return;
 				}
 
 				NacosValueTarget nacosValueTarget = new NacosValueTarget(bean, beanName,
 						method, field);
-				put2ListMap(placeholderNacosValueTargetMap, placeholder,
-						nacosValueTarget);
+				List<NacosValueTarget> beanPropertyList = getNacosValueTargets(
+						placeholder);
+				beanPropertyList.add(nacosValueTarget);
+				put2SetMap(beanClassPlaceholdersMap, bean.getClass(), placeholder);
+				if (lastPlaceholderValues.containsKey(placeholder)) {
+					// The placeholder may have been refreshed after the value was
+					// injected and before the target was registered
+					synchronized (beanPropertyList) {
+						String value = resolveValue(placeholder);
+						if (value != null) {
+							setValue(nacosValueTarget, value, newConverter());
+						}
+					}
+				}
 			}
 		}
 	}
 
-	private String resolvePlaceholder(String placeholder) {
-		if (!placeholder.startsWith(PLACEHOLDER_PREFIX)) {
-			return null;
-		}
-
-		if (!placeholder.endsWith(PLACEHOLDER_SUFFIX)) {
-			return null;
-		}
+	private boolean isPlaceholder(String value) {
+		return value.contains(PLACEHOLDER_PREFIX);
+	}
 
-		if (placeholder.length() <= PLACEHOLDER_PREFIX.length()
-				+ PLACEHOLDER_SUFFIX.length()) {
-			return null;
+	/**
+	 * Get the targets of the placeholder, the keys it depends on are recorded before it
+	 * is registered for the first time
+	 *
+	 * @param placeholder the expression of {@link NacosValue#value()}
+	 * @return non-null
+	 */
+	private List<NacosValueTarget> getNacosValueTargets(String placeholder) {
+		List<NacosValueTarget> beanPropertyList = placeholderNacosValueTargetMap
+				.get(placeholder);
+		if (beanPropertyList == null) {
+			resolveValue(placeholder);
+			List<NacosValueTarget> newBeanPropertyList = new CopyOnWriteArrayList<NacosValueTarget>();
+			beanPropertyList = placeholderNacosValueTargetMap.putIfAbsent(placeholder,
+					newBeanPropertyList);
+			if (beanPropertyList == null) {
+				beanPropertyList = newBeanPropertyList;
+			}
 		}
+		return beanPropertyList;
+	}
 
-		int beginIndex = PLACEHOLDER_PREFIX.length();
-		int endIndex = placeholder.length() - PLACEHOLDER_PREFIX.length() + 1;
-		placeholder = placeholder.substring(beginIndex, endIndex);
-
-		int separatorIndex = placeholder.indexOf(VALUE_SEPARATOR);
-		if (separatorIndex != -1) {
-			return placeholder.substring(0, separatorIndex);
+	private <K, V> void put2SetMap(ConcurrentMap<K, Set<V>> map, K key, V value) {
+		Set<V> valueSet = map.get(key);
+		if (valueSet == null) {
+			Set<V> newValueSet = Collections
+					.newSetFromMap(new ConcurrentHashMap<V, Boolean>());
+			valueSet = map.putIfAbsent(key, newValueSet);
+			if (valueSet == null) {
+				valueSet = newValueSet;
+			}
 		}
-
-		return placeholder;
+		valueSet.add(value);
 	}
 
-	private <K, V> void put2ListMap(Map<K, List<V>> map, K key, V value) {
-		List<V> valueList = map.get(key);
-		if (valueList == null) {
-			valueList = new ArrayList<V>();
+	/**
+	 * Convert the property value to the type of the field, or to the arguments of the
+	 * method
+	 */
+	private Object convertValue(NacosValueTarget target, String propertyValue,
+			NacosValueConverter converter) {
+		if (target.method == null) {
+			return converter.convert(propertyValue, target.field,
+					target.typeDescriptors[0]);
 		}
-		valueList.add(value);
-		map.put(key, valueList);
+		return convertIfNecessary(converter, target.methodParameters,
+				target.typeDescriptors, propertyValue);
 	}
 
-	private void setMethod(NacosValueTarget nacosValueTarget, String propertyValue) {
-		Method method = nacosValueTarget.method;
-		ReflectionUtils.makeAccessible(method);
+	private void injectValue(NacosValueTarget target, Object bean,
+			Object convertedValue, String propertyValue) {
 		try {
-			method.invoke(nacosValueTarget.bean,
-					convertIfNecessary(method, propertyValue));
+			if (target.method == null) {
+				target.field.set(bean, convertedValue);
 
-			if (logger.isDebugEnabled()) {
-				logger.debug("Update value with {} (method) in {} (bean) with {}",
-						method.getName(), nacosValueTarget.beanName, propertyValue);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Update value of the {}" + " (field) in {} (bean) with {}",
+							target.field.getName(), target.beanName, propertyValue);
+				}
+			}
+			else {
+				if (target.methodParameters.length == 1) {
+					target.method.invoke(bean, convertedValue);
+				}
+				else {
+					target.method.invoke(bean, (Object[]) convertedValue);
+				}
+
+				if (logger.isDebugEnabled()) {
+					logger.debug("Update value with {} (method) in {} (bean) with {}",
+							target.method.getName(), target.beanName, propertyValue);
+				}
 			}
 		}
 		catch (Throwable e) {
-			if (logger.isErrorEnabled()) {
-				logger.error("Can't update value with " + method.getName()
-						+ " (method) in " + nacosValueTarget.beanName + " (bean)", e);
-			}
+			logUpdateFailure(target, e);
 		}
 	}
 
-	private void setField(final NacosValueTarget nacosValueTarget,
-			final String propertyValue) {
-		final Object bean = nacosValueTarget.bean;
+	private void logUpdateFailure(NacosValueTarget target, Throwable e) {
+		if (!logger.isErrorEnabled()) {
+			return;
+		}
+		if (target.method == null) {
+			logger.error("Can't update value of the " + target.field.getName()
+					+ " (field) in " + target.beanName + " (bean)", e);
+		}
+		else {
+			logger.error("Can't update value with " + target.method.getName()
+					+ " (method) in " + target.beanName + " (bean)", e);
+		}
+	}
 
-		Field field = nacosValueTarget.field;
+	/**
+	 * A value converted for a target, waiting to be applied
+	 */
+	private static class ConvertedValue {
 
-		String fieldName = field.getName();
+		private final NacosValueTarget target;
 
-		try {
-			ReflectionUtils.makeAccessible(field);
-			field.set(bean, convertIfNecessary(field, propertyValue));
+		/**
+		 * Strongly referenced until the value is applied
+		 */
+		private final Object bean;
 
-			if (logger.isDebugEnabled()) {
-				logger.debug("Update value of the {}" + " (field) in {} (bean) with {}",
-						fieldName, nacosValueTarget.beanName, propertyValue);
-			}
-		}
-		catch (Throwable e) {
-			if (logger.isErrorEnabled()) {
-				logger.error("Can't update value of the " + fieldName + " (field) in "
-						+ nacosValueTarget.beanName + " (bean)", e);
-			}
+		private final String propertyValue;
+
+		private final Object value;
+
+		ConvertedValue(NacosValueTarget target, Object bean, String propertyValue,
+				Object value) {
+			this.target = target;
+			this.bean = bean;
+			this.propertyValue = propertyValue;
+			this.value = value;
 		}
+
 	}
 
 	private static class NacosValueTarget {
 
-		private final Object bean;
+		/**
+		 * Weakly referenced, so that the beans out of the container's control (e.g.
+		 * prototype) can still be collected
+		 */
+		private final WeakReference<Object> bean;
 
 		private final String beanName;
 
@@ -314,10 +778,20 @@ public class NacosValueAnnotationBeanPostProcessor extends
 
 		private final Field field;
 
-		private String lastMD5;
+		/**
+		 * The parameters of {@link #method} resolved once, <code>null</code> if the
+		 * target is a field
+		 */
+		private final MethodParameter[] methodParameters;
+
+		/**
+		 * The {@link TypeDescriptor}s of {@link #methodParameters}, or of
+		 * {@link #field}
+		 */
+		private final TypeDescriptor[] typeDescriptors;
 
 		NacosValueTarget(Object bean, String beanName, Method method, Field field) {
-			this.bean = bean;
+			this.bean = new WeakReference<Object>(bean);
 
 			this.beanName = beanName;
 
@@ -325,11 +799,24 @@ public class NacosValueAnnotationBeanPostProcessor extends
 
 			this.field = field;
 
-			this.lastMD5 = "";
+			// Resolve members once so that refreshing doesn't have to
+			if (method != null) {
+				ReflectionUtils.makeAccessible(method);
+				this.methodParameters = resolveMethodParameters(method);
+				this.typeDescriptors = resolveTypeDescriptors(methodParameters);
+			}
+			else {
+				ReflectionUtils.makeAccessible(field);
+				this.methodParameters = null;
+				this.typeDescriptors = new TypeDescriptor[] { new TypeDescriptor(field) };
+			}
 		}
 
-		protected void updateLastMD5(String newMD5) {
-			this.lastMD5 = newMD5;
+		/**
+		 * @return the bean, or <code>null</code> if it has been collected
+		 */
+		Object getBean() {
+			return bean.get();
 		}
 
 	}
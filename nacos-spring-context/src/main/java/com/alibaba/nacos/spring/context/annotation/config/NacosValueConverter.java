@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.annotation.config;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.TypeConverter;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Converts the values of {@link com.alibaba.nacos.api.config.annotation.NacosValue}
+ * targets for one refresh. The results of immutable types are memoized by the raw
+ * value and the {@link TypeDescriptor} of the target, for the refresh and, bounded,
+ * across refreshes. The results of other types (e.g. collections, arrays, dates) are
+ * converted for every target, so that beans never share a mutable value.
+ *
+ * @see NacosValueAnnotationBeanPostProcessor
+ * @since 0.3.6
+ */
+class NacosValueConverter {
+
+	/**
+	 * The default max size of the cache shared across refreshes
+	 */
+	static final int DEFAULT_SHARED_CACHE_SIZE = 256;
+
+	private final TypeConverter typeConverter;
+
+	private final Map<ConversionKey, Object> sharedCache;
+
+	private final Map<ConversionKey, Object> convertedValues = new HashMap<ConversionKey, Object>();
+
+	NacosValueConverter(TypeConverter typeConverter,
+			Map<ConversionKey, Object> sharedCache) {
+		this.typeConverter = typeConverter;
+		this.sharedCache = sharedCache;
+	}
+
+	/**
+	 * Create the bounded cache shared across refreshes, the least recently used
+	 * results are evicted first
+	 *
+	 * @param maxSize the max number of the results
+	 * @return thread-safe
+	 */
+	static Map<ConversionKey, Object> newSharedCache(final int maxSize) {
+		return Collections.synchronizedMap(
+				new LinkedHashMap<ConversionKey, Object>(16, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(
+							Map.Entry<ConversionKey, Object> eldest) {
+						return size() > maxSize;
+					}
+				});
+	}
+
+	Object convert(String value, Field field, TypeDescriptor typeDescriptor) {
+		if (!isImmutable(field.getType())) {
+			return typeConverter.convertIfNecessary(value, field.getType(), field);
+		}
+		ConversionKey key = new ConversionKey(value, typeDescriptor);
+		Object convertedValue = getConvertedValue(key);
+		if (convertedValue == null) {
+			convertedValue = typeConverter.convertIfNecessary(value, field.getType(),
+					field);
+			putConvertedValue(key, convertedValue);
+		}
+		return convertedValue;
+	}
+
+	Object convert(String value, MethodParameter methodParameter,
+			TypeDescriptor typeDescriptor) {
+		Class<?> parameterType = methodParameter.getParameterType();
+		if (!isImmutable(parameterType)) {
+			return typeConverter.convertIfNecessary(value, parameterType,
+					methodParameter);
+		}
+		ConversionKey key = new ConversionKey(value, typeDescriptor);
+		Object convertedValue = getConvertedValue(key);
+		if (convertedValue == null) {
+			convertedValue = typeConverter.convertIfNecessary(value, parameterType,
+					methodParameter);
+			putConvertedValue(key, convertedValue);
+		}
+		return convertedValue;
+	}
+
+	private Object getConvertedValue(ConversionKey key) {
+		Object convertedValue = convertedValues.get(key);
+		if (convertedValue == null) {
+			convertedValue = sharedCache.get(key);
+			if (convertedValue != null) {
+				convertedValues.put(key, convertedValue);
+			}
+		}
+		return convertedValue;
+	}
+
+	private void putConvertedValue(ConversionKey key, Object convertedValue) {
+		if (convertedValue != null) {
+			convertedValues.put(key, convertedValue);
+			sharedCache.put(key, convertedValue);
+		}
+	}
+
+	/**
+	 * Whether the instances of the type can be shared by beans
+	 *
+	 * @param type the type of the target
+	 * @return <code>true</code> if the instances are immutable
+	 */
+	static boolean isImmutable(Class<?> type) {
+		return type.isPrimitive() || type.isEnum() || ClassUtils.isPrimitiveWrapper(type)
+				|| String.class.equals(type) || BigDecimal.class.equals(type)
+				|| BigInteger.class.equals(type) || Class.class.equals(type)
+				|| Locale.class.equals(type) || Charset.class.equals(type)
+				|| URI.class.equals(type) || UUID.class.equals(type)
+				// Duration, Period, LocalDate etc.
+				|| type.getName().startsWith("java.time.");
+	}
+
+	/**
+	 * The raw value and the {@link TypeDescriptor} of the target, which includes its
+	 * annotations (e.g. formats) and generics
+	 */
+	static class ConversionKey {
+
+		private final String value;
+
+		private final TypeDescriptor typeDescriptor;
+
+		ConversionKey(String value, TypeDescriptor typeDescriptor) {
+			this.value = value;
+			this.typeDescriptor = typeDescriptor;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ConversionKey)) {
+				return false;
+			}
+			ConversionKey that = (ConversionKey) o;
+			return ObjectUtils.nullSafeEquals(value, that.value)
+					&& ObjectUtils.nullSafeEquals(typeDescriptor, that.typeDescriptor);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ObjectUtils.nullSafeHashCode(value)
+					+ ObjectUtils.nullSafeHashCode(typeDescriptor);
+		}
+
+	}
+
+}
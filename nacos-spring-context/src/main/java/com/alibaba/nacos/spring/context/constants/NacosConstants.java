@@ -38,4 +38,52 @@ public interface NacosConstants {
 	int DEFAULT_NACOS_CONFIG_LISTENER_PARALLELISM = Runtime.getRuntime()
 			.availableProcessors();
 
+	/**
+	 * The number of threads loading and parsing the NacosPropertySources concurrently at
+	 * startup, default is <code>1</code> that loads them one by one
+	 */
+	String NACOS_CONFIG_PROPERTY_SOURCE_LOAD_PARALLELISM = NacosProperties.PREFIX
+			+ "config.property-source.load-parallelism";
+
+	/**
+	 * The overall deadline in milliseconds of loading the NacosPropertySources
+	 * concurrently, the ones not loaded in time are added without config
+	 */
+	String NACOS_CONFIG_PROPERTY_SOURCE_LOAD_TIMEOUT = NacosProperties.PREFIX
+			+ "config.property-source.load-timeout";
+
+	/**
+	 * Whether the adjacent {@link com.alibaba.nacos.spring.core.env.NacosPropertySource}s
+	 * in the Environment are merged into
+	 * {@link com.alibaba.nacos.spring.core.env.NacosCompositePropertySource}s, default is
+	 * <code>false</code>
+	 */
+	String NACOS_CONFIG_COMPOSITE_PROPERTY_SOURCE = NacosProperties.PREFIX
+			+ "config.composite-property-source";
+
+	/**
+	 * Whether the auto-refreshed {@link com.alibaba.nacos.api.config.annotation.NacosValue}
+	 * targets affected by a config change are converted first and then applied all
+	 * together, default is <code>false</code>
+	 */
+	String NACOS_VALUE_ATOMIC_REFRESH = NacosProperties.PREFIX
+			+ "value.atomic-refresh";
+
+	/**
+	 * The directory of the local snapshot of the Nacos configs, the auto-refreshed
+	 * {@link com.alibaba.nacos.spring.core.env.NacosPropertySource}s boot from it and are
+	 * reconciled with the server in the background. It's disabled if absent.
+	 */
+	String NACOS_CONFIG_SNAPSHOT_DIR = NacosProperties.PREFIX + "config.snapshot-dir";
+
+	/**
+	 * The size in bytes of the content of a config published above which it's gzip
+	 * compressed and Base64 encoded, the configs received are decoded anyway. It's
+	 * disabled if absent, since the clients not decoding them can't read them.
+	 *
+	 * @see com.alibaba.nacos.spring.util.ConfigContentCodec
+	 */
+	String NACOS_CONFIG_COMPRESSION_THRESHOLD = NacosProperties.PREFIX
+			+ "config.compression-threshold";
+
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Map;
 
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -27,9 +28,12 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ReflectionUtils;
 
+import static com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase.LISTENER_METHOD_SCAN;
+import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosStartupRecorderIfPresent;
 import static com.alibaba.nacos.spring.util.NacosUtils.resolveGenericType;
 import static java.lang.reflect.Modifier.isAbstract;
 import static java.lang.reflect.Modifier.isNative;
@@ -53,7 +57,7 @@ import static java.lang.reflect.Modifier.isStatic;
  * @since 0.1.0
  */
 public abstract class AnnotationListenerMethodProcessor<A extends Annotation>
-		implements ApplicationListener<ContextRefreshedEvent> {
+		implements ApplicationListener<ContextRefreshedEvent>, Ordered {
 
 	protected final Log logger = LogFactory.getLog(getClass());
 	private final Class<A> annotationType;
@@ -105,13 +109,20 @@ public abstract class AnnotationListenerMethodProcessor<A extends Annotation>
 	private void processBeans(Map<String, Object> beansMap,
 			ApplicationContext applicationContext) {
 
+		NacosStartupRecorder recorder = getNacosStartupRecorderIfPresent(
+				applicationContext);
+
 		for (Map.Entry<String, Object> entry : beansMap.entrySet()) {
 			String beanName = entry.getKey();
 			Object bean = entry.getValue();
 			// Bean type
 			if (bean != null) {
+				long startTime = NacosStartupRecorder.start();
 				Class<?> beanClass = AopUtils.getTargetClass(bean);
 				processBean(beanName, bean, beanClass, applicationContext);
+				if (recorder != null) {
+					recorder.record(LISTENER_METHOD_SCAN, beanName, startTime);
+				}
 			}
 		}
 
@@ -165,6 +176,16 @@ public abstract class AnnotationListenerMethodProcessor<A extends Annotation>
 			Class<?> beanClass, A annotation, Method method,
 			ApplicationContext applicationContext);
 
+	/**
+	 * Before {@link NacosStartupReporter}, which reports the time taken by the bean scan
+	 *
+	 * @return <code>NacosStartupReporter.ORDER - 1</code>
+	 */
+	@Override
+	public int getOrder() {
+		return NacosStartupReporter.ORDER - 1;
+	}
+
 	/**
 	 * Subclass could override this method to determine current method is candidate or not
 	 *
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time taken by each step of the Nacos bootstrap, per dataId or per bean
+ *
+ * @see NacosStartupReportEvent
+ * @see NacosStartupReporter
+ * @since 0.3.6
+ */
+public class NacosStartupReport {
+
+	private final List<Step> steps;
+
+	private final int droppedSteps;
+
+	public NacosStartupReport(List<Step> steps, int droppedSteps) {
+		this.steps = Collections.unmodifiableList(new ArrayList<Step>(steps));
+		this.droppedSteps = droppedSteps;
+	}
+
+	/**
+	 * @return the steps in the order they finished
+	 */
+	public List<Step> getSteps() {
+		return steps;
+	}
+
+	/**
+	 * @return the number of steps not recorded because there were too many
+	 */
+	public int getDroppedSteps() {
+		return droppedSteps;
+	}
+
+	/**
+	 * @param phase {@link Phase}
+	 * @return the total time in nanoseconds of the steps of the phase
+	 */
+	public long getDuration(Phase phase) {
+		long duration = 0;
+		for (Step step : steps) {
+			if (step.phase == phase) {
+				duration += step.duration;
+			}
+		}
+		return duration;
+	}
+
+	/**
+	 * @return the total time in nanoseconds of each phase
+	 */
+	public Map<Phase, Long> getDurations() {
+		Map<Phase, Long> durations = new LinkedHashMap<Phase, Long>();
+		for (Phase phase : Phase.values()) {
+			durations.put(phase, getDuration(phase));
+		}
+		return durations;
+	}
+
+	/**
+	 * @param limit the max number of steps
+	 * @return the slowest steps, from the slowest
+	 */
+	public List<Step> getSlowestSteps(int limit) {
+		List<Step> slowestSteps = new ArrayList<Step>(steps);
+		Collections.sort(slowestSteps, new Comparator<Step>() {
+			@Override
+			public int compare(Step step, Step another) {
+				return step.duration < another.duration ? 1
+						: step.duration == another.duration ? 0 : -1;
+			}
+		});
+		return slowestSteps.subList(0, Math.min(limit, slowestSteps.size()));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("NacosStartupReport{");
+		for (Map.Entry<Phase, Long> entry : getDurations().entrySet()) {
+			builder.append(entry.getKey()).append('=')
+					.append(TimeUnit.NANOSECONDS.toMillis(entry.getValue()))
+					.append("ms, ");
+		}
+		return builder.append("slowestSteps=").append(getSlowestSteps(10)).append('}')
+				.toString();
+	}
+
+	/**
+	 * The phases of the Nacos bootstrap
+	 */
+	public enum Phase {
+
+		/**
+		 * Creating a {@link com.alibaba.nacos.api.config.ConfigService}, per server
+		 */
+		SERVICE_CREATION,
+
+		/**
+		 * Getting the content of a config from the server, per dataId
+		 */
+		CONFIG_LOAD,
+
+		/**
+		 * Parsing the content of a config, per dataId
+		 */
+		CONFIG_PARSE,
+
+		/**
+		 * Adding the listener of an auto-refreshed
+		 * {@link com.alibaba.nacos.spring.core.env.NacosPropertySource}, per dataId
+		 */
+		LISTENER_REGISTRATION,
+
+		/**
+		 * Scanning a bean for the listener methods, per bean
+		 */
+		LISTENER_METHOD_SCAN
+	}
+
+	/**
+	 * A timed step
+	 */
+	public static class Step {
+
+		private final Phase phase;
+
+		private final String name;
+
+		private final long duration;
+
+		public Step(Phase phase, String name, long duration) {
+			this.phase = phase;
+			this.name = name;
+			this.duration = duration;
+		}
+
+		public Phase getPhase() {
+			return phase;
+		}
+
+		/**
+		 * @return "groupId:dataId" of a config, the server address of a service or the
+		 *     name of a bean
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the time taken in nanoseconds
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+		@Override
+		public String toString() {
+			return phase + "[" + name + "]="
+					+ TimeUnit.NANOSECONDS.toMicros(duration) / 1000.0 + "ms";
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * The event of the {@link NacosStartupReport}, published once the
+ * {@link ApplicationContext} is refreshed
+ *
+ * @see NacosStartupReporter
+ * @since 0.3.6
+ */
+public class NacosStartupReportEvent extends ApplicationEvent {
+
+	private final NacosStartupReport report;
+
+	/**
+	 * @param applicationContext the refreshed {@link ApplicationContext}
+	 * @param report {@link NacosStartupReport}
+	 */
+	public NacosStartupReportEvent(ApplicationContext applicationContext,
+			NacosStartupReport report) {
+		super(applicationContext);
+		this.report = report;
+	}
+
+	public NacosStartupReport getReport() {
+		return report;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JMX view of the latest {@link NacosStartupReport}, the times are in nanoseconds
+ *
+ * @see NacosStartupReporter
+ * @since 0.3.6
+ */
+public interface NacosStartupReportMXBean {
+
+	/**
+	 * @return the steps in the order they finished
+	 */
+	List<NacosStartupReport.Step> getSteps();
+
+	/**
+	 * @return the total time of each phase by its name
+	 */
+	Map<String, Long> getPhaseDurations();
+
+	/**
+	 * @return the slowest ten steps
+	 */
+	List<NacosStartupReport.Step> getSlowestSteps();
+
+	/**
+	 * @return the number of steps not recorded because there were too many
+	 */
+	int getDroppedSteps();
+
+}
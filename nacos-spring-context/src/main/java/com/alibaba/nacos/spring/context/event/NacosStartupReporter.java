@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+
+import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosStartupRecorderIfPresent;
+
+/**
+ * Takes the {@link NacosStartupReport} once the {@link ApplicationContext} is
+ * refreshed, publishes it as a {@link NacosStartupReportEvent}, and exposes it as the
+ * {@link NacosStartupReportMXBean MXBean} named "{@value #OBJECT_NAME_PREFIX}" and the
+ * id of the {@link ApplicationContext}.
+ *
+ * @see NacosStartupRecorder
+ * @since 0.3.6
+ */
+public class NacosStartupReporter
+		implements ApplicationListener<ContextRefreshedEvent>, ApplicationContextAware,
+		DisposableBean, Ordered, NacosStartupReportMXBean {
+
+	/**
+	 * The bean name of {@link NacosStartupReporter}
+	 */
+	public static final String BEAN_NAME = "nacosStartupReporter";
+
+	/**
+	 * The order of {@link NacosStartupReporter}, after the other Nacos listeners of
+	 * {@link ContextRefreshedEvent}
+	 */
+	public static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+	public static final String OBJECT_NAME_PREFIX = "com.alibaba.nacos.spring:type=NacosStartupReport,context=";
+
+	private static final int SLOWEST_STEPS_LIMIT = 10;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private ApplicationContext applicationContext;
+
+	private volatile NacosStartupReport report = new NacosStartupReport(
+			Collections.<NacosStartupReport.Step> emptyList(), 0);
+
+	private ObjectName objectName;
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != applicationContext) {
+			return;
+		}
+		NacosStartupRecorder recorder = getNacosStartupRecorderIfPresent(
+				applicationContext);
+		if (recorder == null) {
+			return;
+		}
+		report = recorder.takeReport();
+		if (logger.isInfoEnabled()) {
+			logger.info("Nacos startup : {}", report);
+		}
+		registerMBean();
+		applicationContext
+				.publishEvent(new NacosStartupReportEvent(applicationContext, report));
+	}
+
+	private synchronized void registerMBean() {
+		if (objectName != null) {
+			return;
+		}
+		try {
+			ObjectName objectName = new ObjectName(
+					OBJECT_NAME_PREFIX + ObjectName.quote(applicationContext.getId()));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			this.objectName = objectName;
+		}
+		catch (JMException e) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("NacosStartupReport can't be exposed by JMX", e);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (objectName != null) {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+			objectName = null;
+		}
+	}
+
+	/**
+	 * @return the latest {@link NacosStartupReport}
+	 */
+	public NacosStartupReport getReport() {
+		return report;
+	}
+
+	/**
+	 * @return the name of the MXBean, or <code>null</code> if it's not registered
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	@Override
+	public List<NacosStartupReport.Step> getSteps() {
+		return report.getSteps();
+	}
+
+	@Override
+	public Map<String, Long> getPhaseDurations() {
+		Map<String, Long> phaseDurations = new LinkedHashMap<String, Long>();
+		for (Map.Entry<NacosStartupReport.Phase, Long> entry : report.getDurations()
+				.entrySet()) {
+			phaseDurations.put(entry.getKey().name(), entry.getValue());
+		}
+		return phaseDurations;
+	}
+
+	@Override
+	public List<NacosStartupReport.Step> getSlowestSteps() {
+		return report.getSlowestSteps(SLOWEST_STEPS_LIMIT);
+	}
+
+	@Override
+	public int getDroppedSteps() {
+		return report.getDroppedSteps();
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext)
+			throws BeansException {
+		this.applicationContext = applicationContext;
+	}
+
+}
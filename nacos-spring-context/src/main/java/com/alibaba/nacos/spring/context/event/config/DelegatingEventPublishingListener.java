@@ -21,6 +21,11 @@ import java.util.concurrent.Executor;
 import com.alibaba.nacos.api.config.ConfigService;
 import com.alibaba.nacos.api.config.ConfigType;
 import com.alibaba.nacos.api.config.listener.Listener;
+import com.alibaba.nacos.spring.util.ConfigContentCodec;
+import com.alibaba.nacos.spring.util.ConfigParseLimitException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -28,7 +33,9 @@ import org.springframework.context.ApplicationEventPublisher;
  * A Delegating {@link NacosConfigReceivedEvent Event} Publishing {@link Listener} of
  * Nacos Config {@link Listener} with dataId, groupId and {@link ConfigService} instance.
  * A {@link NacosConfigReceivedEvent Nacos config received event} will be published when a
- * new Nacos config received.
+ * new Nacos config received, decoded by {@link ConfigContentCodec}, or a
+ * {@link NacosConfigRejectedEvent} if it's too large once decoded. It's the only
+ * listener decoding the content, a malformed one is received as it is.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @see NacosConfigReceivedEvent
@@ -38,6 +45,8 @@ import org.springframework.context.ApplicationEventPublisher;
  */
 public final class DelegatingEventPublishingListener implements Listener {
 
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
 	private final ConfigService configService;
 
 	private final String dataId;
@@ -88,6 +97,22 @@ public final class DelegatingEventPublishingListener implements Listener {
 	 */
 	@Override
 	public void receiveConfigInfo(String content) {
+		try {
+			content = ConfigContentCodec.decode(content);
+		}
+		catch (IllegalArgumentException e) {
+			// Not thrown to the listener thread of the client
+			if (logger.isErrorEnabled()) {
+				logger.error("The content of dataId : " + dataId + " , groupId : "
+						+ groupId + " can't be decoded, it's received as it is", e);
+			}
+		}
+		catch (ConfigParseLimitException e) {
+			applicationEventPublisher.publishEvent(new NacosConfigRejectedEvent(
+					configService, dataId, groupId, configType, e.getLimitProperty(),
+					e.getMessage()));
+			return;
+		}
 		onReceived(content);
 		publishEvent(content);
 	}
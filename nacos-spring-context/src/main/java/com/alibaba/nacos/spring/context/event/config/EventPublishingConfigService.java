@@ -24,12 +24,16 @@ import com.alibaba.nacos.api.config.listener.Listener;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.spring.context.event.DeferredApplicationEventPublisher;
 import com.alibaba.nacos.spring.metadata.NacosServiceMetaData;
+import com.alibaba.nacos.spring.util.ConfigContentCodec;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ConfigurableApplicationContext;
 
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_COMPRESSION_THRESHOLD;
+
 /**
- * {@link NacosConfigEvent Event} publishing {@link ConfigService}
+ * {@link NacosConfigEvent Event} publishing {@link ConfigService}, the content of the
+ * configs is encoded and decoded by {@link ConfigContentCodec}
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 0.1.0
@@ -44,6 +48,8 @@ public class EventPublishingConfigService implements ConfigService, NacosService
 
 	private final Properties properties;
 
+	private final int compressionThreshold;
+
 	public EventPublishingConfigService(ConfigService configService,
 			Properties properties, ConfigurableApplicationContext context,
 			Executor executor) {
@@ -51,13 +57,16 @@ public class EventPublishingConfigService implements ConfigService, NacosService
 		this.properties = properties;
 		this.applicationEventPublisher = new DeferredApplicationEventPublisher(context);
 		this.executor = executor;
+		this.compressionThreshold = context.getEnvironment()
+				.getProperty(NACOS_CONFIG_COMPRESSION_THRESHOLD, int.class, -1);
 	}
 
 	@Override
 	public String getConfig(String dataId, String group, long timeoutMs)
 			throws NacosException {
 		try {
-			return configService.getConfig(dataId, group, timeoutMs);
+			return decode(dataId, group,
+					configService.getConfig(dataId, group, timeoutMs));
 		}
 		catch (NacosException e) {
 			if (NacosException.SERVER_ERROR == e.getErrCode()) { // timeout error
@@ -73,8 +82,24 @@ public class EventPublishingConfigService implements ConfigService, NacosService
 			Listener listener) throws NacosException {
 		Listener listenerAdapter = new DelegatingEventPublishingListener(configService,
 				dataId, group, applicationEventPublisher, executor, listener);
-		return configService.getConfigAndSignListener(dataId, group, timeoutMs,
-				listenerAdapter);
+		return decode(dataId, group, configService.getConfigAndSignListener(dataId,
+				group, timeoutMs, listenerAdapter));
+	}
+
+	/**
+	 * Decode the content got from the server, the content received by the listeners is
+	 * decoded by {@link DelegatingEventPublishingListener}
+	 */
+	private static String decode(String dataId, String group, String content)
+			throws NacosException {
+		try {
+			return ConfigContentCodec.decode(content);
+		}
+		catch (IllegalArgumentException e) {
+			throw new NacosException(NacosException.CLIENT_INVALID_PARAM,
+					"The content of dataId : " + dataId + " , groupId : " + group
+							+ " can't be decoded, " + e.getMessage());
+		}
 	}
 
 	/**
@@ -105,7 +130,8 @@ public class EventPublishingConfigService implements ConfigService, NacosService
 	@Override
 	public boolean publishConfig(String dataId, String group, String content)
 			throws NacosException {
-		boolean published = configService.publishConfig(dataId, group, content);
+		boolean published = configService.publishConfig(dataId, group,
+				ConfigContentCodec.encode(content, compressionThreshold));
 		publishEvent(new NacosConfigPublishedEvent(configService, dataId, group, content,
 				published));
 		return published;
@@ -130,7 +156,13 @@ public class EventPublishingConfigService implements ConfigService, NacosService
 		return configService.getServerStatus();
 	}
 
-	private void publishEvent(NacosConfigEvent nacosConfigEvent) {
+	/**
+	 * Publish the {@link NacosConfigEvent event} of this {@link ConfigService}, it's
+	 * deferred until the context is ready
+	 *
+	 * @param nacosConfigEvent {@link NacosConfigEvent}
+	 */
+	public void publishEvent(NacosConfigEvent nacosConfigEvent) {
 		applicationEventPublisher.publishEvent(nacosConfigEvent);
 	}
 
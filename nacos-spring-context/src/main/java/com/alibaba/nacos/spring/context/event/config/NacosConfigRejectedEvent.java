@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event.config;
+
+import com.alibaba.nacos.api.config.ConfigService;
+
+/**
+ * {@link NacosConfigEvent Nacos config event} for a config received which is rejected
+ * since it exceeds one of the {@link com.alibaba.nacos.spring.util.ConfigParseLimits},
+ * the {@link com.alibaba.nacos.spring.core.env.NacosPropertySource} keeps the previous
+ * config.
+ *
+ * @since 0.3.6
+ */
+public class NacosConfigRejectedEvent extends NacosConfigEvent {
+
+	private final String type;
+
+	private final String limitProperty;
+
+	private final String errorMessage;
+
+	/**
+	 * @param configService Nacos {@link ConfigService}
+	 * @param dataId data ID
+	 * @param groupId group ID
+	 * @param type the type of config
+	 * @param limitProperty the name of the System property of the limit exceeded
+	 * @param errorMessage error message
+	 */
+	public NacosConfigRejectedEvent(ConfigService configService, String dataId,
+			String groupId, String type, String limitProperty, String errorMessage) {
+		super(configService, dataId, groupId);
+		this.type = type;
+		this.limitProperty = limitProperty;
+		this.errorMessage = errorMessage;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * get the name of the System property of the limit exceeded
+	 *
+	 * @return the name of the System property
+	 */
+	public String getLimitProperty() {
+		return limitProperty;
+	}
+
+	/**
+	 * get error message
+	 *
+	 * @return error message
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event.config;
+
+import java.util.Set;
+
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.spring.util.PropertiesDiff;
+
+/**
+ * The {@link NacosConfigEvent event} of an auto-refreshed
+ * {@link com.alibaba.nacos.spring.core.env.NacosPropertySource} whose properties have
+ * been changed. It is published once the new properties are visible in the
+ * {@link org.springframework.core.env.Environment}, and before the
+ * {@link NacosConfigReceivedEvent} of the same config.
+ *
+ * @see PropertiesDiff
+ * @since 0.3.6
+ */
+public class NacosPropertySourceChangedEvent extends NacosConfigEvent {
+
+	private final String propertySourceName;
+
+	private final PropertiesDiff diff;
+
+	public NacosPropertySourceChangedEvent(ConfigService configService, String dataId,
+			String groupId, String propertySourceName, PropertiesDiff diff) {
+		super(configService, dataId, groupId);
+		this.propertySourceName = propertySourceName;
+		this.diff = diff;
+	}
+
+	/**
+	 * @return the name of the changed
+	 * {@link com.alibaba.nacos.spring.core.env.NacosPropertySource}
+	 */
+	public String getPropertySourceName() {
+		return propertySourceName;
+	}
+
+	public Set<String> getAddedKeys() {
+		return diff.getAddedKeys();
+	}
+
+	public Set<String> getChangedKeys() {
+		return diff.getChangedKeys();
+	}
+
+	public Set<String> getRemovedKeys() {
+		return diff.getRemovedKeys();
+	}
+
+	/**
+	 * @return the added, changed and removed keys
+	 */
+	public Set<String> getKeys() {
+		return diff.getKeys();
+	}
+
+}
@@ -150,7 +150,7 @@ public class NacosConfigurationPropertiesBinder {
 			ConfigService configService) {
 		final String prefix = properties.prefix();
 		PropertyValues propertyValues = NacosUtils.resolvePropertyValues(bean, prefix,
-				dataId, groupId, content, type);
+				dataId, groupId, content, type, environment);
 		doBind(bean, properties, propertyValues);
 		publishBoundEvent(bean, beanName, dataId, groupId, properties, content,
 				configService);
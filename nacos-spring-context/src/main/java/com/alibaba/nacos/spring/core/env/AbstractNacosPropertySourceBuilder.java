@@ -25,8 +25,10 @@ import java.util.Properties;
 import com.alibaba.nacos.api.config.ConfigType;
 import com.alibaba.nacos.spring.context.event.DeferredApplicationEventPublisher;
 import com.alibaba.nacos.spring.context.event.config.NacosConfigMetadataEvent;
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
 import com.alibaba.nacos.spring.util.NacosUtils;
 import com.alibaba.nacos.spring.util.config.NacosConfigLoader;
+import com.alibaba.nacos.spring.util.config.NacosConfigSnapshotStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +36,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.ApplicationContext;
@@ -53,8 +56,10 @@ import static com.alibaba.nacos.spring.context.annotation.config.NacosPropertySo
 import static com.alibaba.nacos.spring.context.annotation.config.NacosPropertySource.PROPERTIES_ATTRIBUTE_NAME;
 import static com.alibaba.nacos.spring.util.GlobalNacosPropertiesSource.CONFIG;
 import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosServiceFactoryBean;
+import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosStartupRecorderIfPresent;
 import static com.alibaba.nacos.spring.util.NacosUtils.buildDefaultPropertySourceName;
 import static com.alibaba.nacos.spring.util.NacosUtils.resolveProperties;
+import static com.alibaba.nacos.spring.util.NacosUtils.toPropertyMap;
 import static com.alibaba.spring.util.ClassUtils.resolveGenericType;
 import static java.lang.String.format;
 import static org.springframework.util.ClassUtils.resolveClassName;
@@ -68,13 +73,15 @@ import static org.springframework.util.ClassUtils.resolveClassName;
  */
 public abstract class AbstractNacosPropertySourceBuilder<T extends BeanDefinition>
 		implements EnvironmentAware, BeanFactoryAware, BeanClassLoaderAware,
-		ApplicationContextAware, InitializingBean {
+		ApplicationContextAware, InitializingBean, DisposableBean {
 
 	protected final Logger logger = LoggerFactory.getLogger(this.getClass());
 	private final Class<T> beanDefinitionType;
 	protected ConfigurableEnvironment environment;
 	protected BeanFactory beanFactory;
 	private NacosConfigLoader nacosConfigLoader;
+	private NacosConfigSnapshotStore snapshotStore;
+	private NacosStartupRecorder nacosStartupRecorder;
 	private Properties globalNacosProperties;
 	private ClassLoader classLoader;
 
@@ -93,38 +100,69 @@ public abstract class AbstractNacosPropertySourceBuilder<T extends BeanDefinitio
 	 */
 	public List<NacosPropertySource> build(String beanName, T beanDefinition) {
 
-		Map<String, Object>[] attributesArray = resolveRuntimeAttributesArray(
-				beanDefinition, globalNacosProperties);
+		List<Map<String, Object>> attributesList = resolveRuntimeAttributesList(
+				beanDefinition);
 
-		int size = attributesArray == null ? 0 : attributesArray.length;
-
-		if (size == 0) {
+		if (attributesList.isEmpty()) {
 			return Collections.emptyList();
 		}
 
 		List<NacosPropertySource> nacosPropertySources = new ArrayList<NacosPropertySource>(
-				size);
+				attributesList.size());
 
-		for (int i = 0; i < size; i++) {
-			Map<String, Object> attributes = attributesArray[i];
-			if (!CollectionUtils.isEmpty(attributes)) {
+		for (Map<String, Object> attributes : attributesList) {
 
-				NacosPropertySource nacosPropertySource = doBuild(beanName,
-						beanDefinition, attributesArray[i]);
+			NacosPropertySource nacosPropertySource = doBuild(beanName, beanDefinition,
+					attributes);
 
-				NacosConfigMetadataEvent metadataEvent = createMetaEvent(
-						nacosPropertySource, beanDefinition);
+			publishMetadataEvent(nacosPropertySource, beanDefinition);
 
-				initMetadataEvent(nacosPropertySource, beanDefinition, metadataEvent);
+			nacosPropertySources.add(nacosPropertySource);
+		}
 
-				publishMetadataEvent(metadataEvent);
+		return nacosPropertySources;
+	}
 
-				nacosPropertySources.add(nacosPropertySource);
+	/**
+	 * Resolve the runtime attributes of each {@link NacosPropertySource} declared by
+	 * {@link BeanDefinition}, the empty ones are skipped
+	 *
+	 * @param beanDefinition {@link BeanDefinition}
+	 * @return non-null
+	 */
+	List<Map<String, Object>> resolveRuntimeAttributesList(T beanDefinition) {
+		Map<String, Object>[] attributesArray = resolveRuntimeAttributesArray(
+				beanDefinition, globalNacosProperties);
+
+		int size = attributesArray == null ? 0 : attributesArray.length;
+
+		List<Map<String, Object>> attributesList = new ArrayList<Map<String, Object>>(
+				size);
 
+		for (int i = 0; i < size; i++) {
+			if (!CollectionUtils.isEmpty(attributesArray[i])) {
+				attributesList.add(attributesArray[i]);
 			}
 		}
 
-		return nacosPropertySources;
+		return attributesList;
+	}
+
+	/**
+	 * Publish the {@link NacosConfigMetadataEvent} of the built
+	 * {@link NacosPropertySource}
+	 *
+	 * @param nacosPropertySource the built {@link NacosPropertySource}
+	 * @param beanDefinition {@link BeanDefinition}
+	 */
+	void publishMetadataEvent(NacosPropertySource nacosPropertySource,
+			T beanDefinition) {
+		NacosConfigMetadataEvent metadataEvent = createMetaEvent(nacosPropertySource,
+				beanDefinition);
+
+		initMetadataEvent(nacosPropertySource, beanDefinition, metadataEvent);
+
+		applicationEventPublisher.publishEvent(metadataEvent);
 	}
 
 	protected abstract NacosConfigMetadataEvent createMetaEvent(
@@ -145,15 +183,30 @@ public abstract class AbstractNacosPropertySourceBuilder<T extends BeanDefinitio
 		doInitMetadataEvent(nacosPropertySource, beanDefinition, metadataEvent);
 	}
 
-	private void publishMetadataEvent(NacosConfigMetadataEvent metadataEvent) {
-		applicationEventPublisher.publishEvent(metadataEvent);
-	}
-
 	protected abstract void doInitMetadataEvent(NacosPropertySource nacosPropertySource,
 			T beanDefinition, NacosConfigMetadataEvent metadataEvent);
 
 	protected NacosPropertySource doBuild(String beanName, T beanDefinition,
 			Map<String, Object> runtimeAttributes) {
+		return doBuild(beanName, beanDefinition, runtimeAttributes, true);
+	}
+
+	/**
+	 * Build {@link NacosPropertySource} without loading its config, used when the config
+	 * can't be loaded in time
+	 *
+	 * @param beanName Bean name
+	 * @param beanDefinition {@link BeanDefinition}
+	 * @param runtimeAttributes the runtime attributes
+	 * @return an empty {@link NacosPropertySource}
+	 */
+	NacosPropertySource buildWithoutConfig(String beanName, T beanDefinition,
+			Map<String, Object> runtimeAttributes) {
+		return doBuild(beanName, beanDefinition, runtimeAttributes, false);
+	}
+
+	private NacosPropertySource doBuild(String beanName, T beanDefinition,
+			Map<String, Object> runtimeAttributes, boolean loadConfig) {
 
 		// Get annotation metadata
 		String name = (String) runtimeAttributes.get(NAME_ATTRIBUTE_NAME);
@@ -172,22 +225,24 @@ public abstract class AbstractNacosPropertySourceBuilder<T extends BeanDefinitio
 		Properties nacosProperties = resolveProperties(nacosPropertiesAttributes,
 				environment, globalNacosProperties);
 
-		String nacosConfig = nacosConfigLoader.load(dataId, groupId, nacosProperties);
+		NacosConfigSnapshotStore snapshotStore = loadConfig ? this.snapshotStore : null;
 
-		if (!StringUtils.hasText(nacosConfig)) {
-			if (logger.isWarnEnabled()) {
-				logger.warn(format(
-						"There is no content for NacosPropertySource from dataId[%s] , groupId[%s] , properties[%s].",
-						dataId, groupId, nacosPropertiesAttributes));
-			}
-		}
+		// With the snapshot, the config is loaded and parsed once auto-refreshed is
+		// initialized
+		String nacosConfig = loadConfig && snapshotStore == null
+				? nacosConfigLoader.load(dataId, groupId, nacosProperties)
+				: null;
+		Map<String, Object> propertyMap = snapshotStore == null
+				? toPropertyMap(dataId, groupId, nacosConfig, type, environment,
+						nacosStartupRecorder)
+				: Collections.<String, Object>emptyMap();
 
 		if (!StringUtils.hasText(name)) {
 			name = buildDefaultPropertySourceName(dataId, groupId, nacosProperties);
 		}
 
-		NacosPropertySource nacosPropertySource = new NacosPropertySource(dataId, groupId,
-				name, nacosConfig, type);
+		NacosPropertySource nacosPropertySource = new NacosPropertySource(name,
+				propertyMap, type);
 
 		nacosPropertySource.setBeanName(beanName);
 
@@ -201,10 +256,56 @@ public abstract class AbstractNacosPropertySourceBuilder<T extends BeanDefinitio
 
 		initNacosPropertySource(nacosPropertySource, beanDefinition, runtimeAttributes);
 
+		if (snapshotStore != null) {
+			nacosConfig = loadConfig(snapshotStore, dataId, groupId, nacosProperties,
+					nacosPropertySource.isAutoRefreshed());
+			nacosPropertySource
+					.setSource(toPropertyMap(dataId, groupId, nacosConfig, type,
+							environment, nacosStartupRecorder));
+		}
+
+		if (!StringUtils.hasText(nacosConfig)) {
+			if (logger.isWarnEnabled()) {
+				logger.warn(format(
+						"There is no content for NacosPropertySource from dataId[%s] , groupId[%s] , properties[%s].",
+						dataId, groupId, nacosPropertiesAttributes));
+			}
+		}
+
 		return nacosPropertySource;
 
 	}
 
+	/**
+	 * Load the config with the snapshot. The auto-refreshed one boots from the snapshot
+	 * if present, and is reconciled with the server once its listener is added. The
+	 * others are loaded from the server, or from the snapshot if the server is
+	 * unavailable.
+	 */
+	private String loadConfig(NacosConfigSnapshotStore snapshotStore, String dataId,
+			String groupId, Properties nacosProperties, boolean autoRefreshed) {
+		String key = NacosConfigSnapshotStore.key(dataId, groupId, nacosProperties);
+		if (autoRefreshed) {
+			String snapshot = snapshotStore.get(key);
+			if (snapshot != null) {
+				if (logger.isInfoEnabled()) {
+					logger.info(format(
+							"NacosPropertySource of dataId[%s] , groupId[%s] boots from the snapshot",
+							dataId, groupId));
+				}
+				return snapshot;
+			}
+		}
+		String nacosConfig = nacosConfigLoader.load(dataId, groupId, nacosProperties);
+		if (nacosConfig != null) {
+			snapshotStore.put(key, nacosConfig);
+		}
+		else {
+			nacosConfig = snapshotStore.get(key);
+		}
+		return nacosConfig;
+	}
+
 	/**
 	 * Runtime attributes must contain those:
 	 * <ul>
@@ -263,7 +364,18 @@ public abstract class AbstractNacosPropertySourceBuilder<T extends BeanDefinitio
 	public void afterPropertiesSet() throws Exception {
 		nacosConfigLoader = new NacosConfigLoader(environment);
 		nacosConfigLoader.setNacosServiceFactory(getNacosServiceFactoryBean(beanFactory));
+		nacosStartupRecorder = getNacosStartupRecorderIfPresent(beanFactory);
+		nacosConfigLoader.setNacosStartupRecorder(nacosStartupRecorder);
 		globalNacosProperties = CONFIG.getMergedGlobalProperties(beanFactory);
+		snapshotStore = NacosConfigSnapshotStore.acquire(environment);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (snapshotStore != null) {
+			snapshotStore.release();
+			snapshotStore = null;
+		}
 	}
 
 	/**
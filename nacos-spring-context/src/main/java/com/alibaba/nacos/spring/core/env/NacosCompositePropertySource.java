@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.core.env;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link PropertySource} composed of adjacent {@link NacosPropertySource}s, which
+ * keeps one merged index of their properties, so that a lookup is one hash probe
+ * instead of one per {@link NacosPropertySource}. The members keep the precedence they
+ * had in the {@link org.springframework.core.env.Environment}, and the index is
+ * re-merged in place only for the keys changed by a member, so a reader may see some
+ * keys of a change applied before the others.
+ * <p>
+ * The members can't be found by their names in
+ * {@link org.springframework.core.env.MutablePropertySources}, only the ones never
+ * referenced by name are merged.
+ *
+ * @see NacosPropertySourcePostProcessor
+ * @since 0.3.6
+ */
+public class NacosCompositePropertySource
+		extends EnumerablePropertySource<Map<String, Object>> {
+
+	/**
+	 * The name of the first {@link NacosCompositePropertySource}, the following ones are
+	 * suffixed by "#" and their index
+	 */
+	public static final String NAME = "nacosCompositePropertySource";
+
+	/**
+	 * The members, from the highest precedence to the lowest
+	 */
+	private final List<NacosPropertySource> propertySources;
+
+	/**
+	 * The merged properties
+	 */
+	private final Map<String, Object> index = new ConcurrentHashMap<String, Object>();
+
+	/**
+	 * The read-only view of {@link #index}
+	 */
+	private final Map<String, Object> source = Collections.unmodifiableMap(index);
+
+	public NacosCompositePropertySource(String name,
+			List<NacosPropertySource> propertySources) {
+		super(name, Collections.<String, Object> emptyMap());
+		this.propertySources = Collections.unmodifiableList(
+				new ArrayList<NacosPropertySource>(propertySources));
+		for (int i = this.propertySources.size() - 1; i >= 0; i--) {
+			for (Map.Entry<String, Object> entry : this.propertySources.get(i)
+					.getSource().entrySet()) {
+				if (entry.getValue() != null) {
+					index.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the members, from the highest precedence to the lowest
+	 */
+	public List<NacosPropertySource> getPropertySources() {
+		return propertySources;
+	}
+
+	/**
+	 * @param name the name of {@link NacosPropertySource}
+	 * @return the member, or <code>null</code> if absent
+	 */
+	public NacosPropertySource getPropertySource(String name) {
+		for (NacosPropertySource propertySource : propertySources) {
+			if (propertySource.getName().equals(name)) {
+				return propertySource;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Replace the properties of a member, and re-merge the keys it has changed, the cost
+	 * is proportional to the changed keys rather than to all the merged ones
+	 *
+	 * @param propertySource the member
+	 * @param properties the new properties of the member
+	 * @param changedKeys the keys added, changed or removed by the new properties
+	 */
+	public synchronized void setSource(NacosPropertySource propertySource,
+			Map<?, ?> properties, Collection<String> changedKeys) {
+		propertySource.setSource(properties);
+		for (String key : changedKeys) {
+			Object value = null;
+			for (NacosPropertySource member : propertySources) {
+				value = member.getProperty(key);
+				if (value != null) {
+					break;
+				}
+			}
+			if (value == null) {
+				index.remove(key);
+			}
+			else {
+				index.put(key, value);
+			}
+		}
+	}
+
+	@Override
+	public Map<String, Object> getSource() {
+		return source;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return index.get(name);
+	}
+
+	@Override
+	public boolean containsProperty(String name) {
+		return index.containsKey(name);
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		return StringUtils.toStringArray(index.keySet());
+	}
+
+}
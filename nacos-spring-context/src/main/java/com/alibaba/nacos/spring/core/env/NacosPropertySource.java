@@ -17,16 +17,23 @@
 package com.alibaba.nacos.spring.core.env;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+import com.alibaba.nacos.spring.util.ParsedProperties;
+import com.alibaba.nacos.spring.util.PropertyKeyIndex;
+
 import org.springframework.core.env.PropertiesPropertySource;
 import org.springframework.core.env.PropertySource;
+import org.springframework.util.StringUtils;
 
-import static com.alibaba.nacos.spring.util.NacosUtils.toProperties;
+import static com.alibaba.nacos.spring.util.NacosUtils.toPropertyMap;
 
 /**
- * Nacos {@link PropertySource}, all read methods are immutable.
+ * Nacos {@link PropertySource}, all read methods are immutable. The properties are held
+ * by an immutable {@link Map} which is swapped wholesale on refresh, so that reads never
+ * take a lock nor see a partial update.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @see com.alibaba.nacos.spring.context.annotation.config.NacosPropertySource
@@ -58,16 +65,98 @@ public class NacosPropertySource extends PropertiesPropertySource {
 
 	private Class<?> beanType;
 
+	/**
+	 * The current properties, immutable
+	 */
+	private volatile Map<String, Object> propertyMap;
+
+	/**
+	 * The key index of {@link #propertyMap} unless it's {@link ParsedProperties}, built
+	 * on demand
+	 */
+	private volatile PropertyKeyIndex keyIndex;
+
 	/**
 	 * @param name the name of Nacos {@link PropertySource}
 	 * @param nacosConfig the Nacos Config with {@link Properties} format
 	 */
 	public NacosPropertySource(String dataId, String groupId, String name,
 			String nacosConfig, String type) {
-		super(name, toProperties(dataId, groupId, nacosConfig, type));
+		this(name, toPropertyMap(dataId, groupId, nacosConfig, type), type);
+	}
+
+	NacosPropertySource(String name, Map<?, ?> properties, String type) {
+		// The properties are held by propertyMap instead of the Hashtable of super
+		super(name, new Properties());
+		this.propertyMap = freeze(properties);
 		this.type = type;
 	}
 
+	/**
+	 * Replace all properties at once, the readers see either the old ones or the new
+	 * ones
+	 *
+	 * @param properties the new properties
+	 */
+	public void setSource(Map<?, ?> properties) {
+		this.propertyMap = freeze(properties);
+	}
+
+	private static Map<String, Object> freeze(Map<?, ?> properties) {
+		if (properties instanceof ParsedProperties) {
+			// Immutable already
+			return (ParsedProperties) properties;
+		}
+		Map<String, Object> propertyMap = new HashMap<String, Object>(
+				(int) (properties.size() / 0.75f) + 1);
+		for (Map.Entry<?, ?> entry : properties.entrySet()) {
+			propertyMap.put(String.valueOf(entry.getKey()), entry.getValue());
+		}
+		return Collections.unmodifiableMap(propertyMap);
+	}
+
+	@Override
+	public Map<String, Object> getSource() {
+		return propertyMap;
+	}
+
+	/**
+	 * Get the properties under the prefix, the cost is proportional to the matching
+	 * properties
+	 *
+	 * @param prefix the prefix, e.g. "user."
+	 * @return the properties keyed by the rest of their names, e.g. "name" of "user.name"
+	 * @see PropertyKeyIndex#getSubProperties(String)
+	 */
+	public Map<String, Object> getSubProperties(String prefix) {
+		Map<String, Object> propertyMap = this.propertyMap;
+		if (propertyMap instanceof ParsedProperties) {
+			return ((ParsedProperties) propertyMap).getKeyIndex()
+					.getSubProperties(prefix);
+		}
+		PropertyKeyIndex keyIndex = this.keyIndex;
+		if (keyIndex == null || keyIndex.getProperties() != propertyMap) {
+			keyIndex = new PropertyKeyIndex(propertyMap);
+			this.keyIndex = keyIndex;
+		}
+		return keyIndex.getSubProperties(prefix);
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return propertyMap.get(name);
+	}
+
+	@Override
+	public boolean containsProperty(String name) {
+		return propertyMap.containsKey(name);
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		return StringUtils.toStringArray(propertyMap.keySet());
+	}
+
 	public String getGroupId() {
 		return groupId;
 	}
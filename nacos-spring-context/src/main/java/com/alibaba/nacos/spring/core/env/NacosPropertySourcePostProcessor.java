@@ -19,10 +19,20 @@ package com.alibaba.nacos.spring.core.env;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.nacos.api.config.ConfigService;
 import com.alibaba.nacos.api.config.listener.AbstractListener;
@@ -32,8 +42,17 @@ import com.alibaba.nacos.spring.beans.factory.annotation.ConfigServiceBeanBuilde
 import com.alibaba.nacos.spring.context.annotation.config.NacosPropertySources;
 import com.alibaba.nacos.spring.context.config.xml.NacosPropertySourceXmlBeanDefinition;
 import com.alibaba.nacos.spring.context.event.config.EventPublishingConfigService;
+import com.alibaba.nacos.spring.context.event.config.NacosConfigReceivedEvent;
+import com.alibaba.nacos.spring.context.event.config.NacosConfigRejectedEvent;
+import com.alibaba.nacos.spring.context.event.config.NacosPropertySourceChangedEvent;
 import com.alibaba.nacos.spring.factory.NacosServiceFactory;
+import com.alibaba.nacos.spring.util.ConfigParseLimitException;
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
+import com.alibaba.nacos.spring.util.PropertiesDiff;
+import com.alibaba.nacos.spring.util.config.NacosConfigSnapshotStore;
 import com.alibaba.spring.util.BeanUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
@@ -51,9 +70,18 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertySources;
 
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_COMPOSITE_PROPERTY_SOURCE;
+import static com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase.LISTENER_REGISTRATION;
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_PROPERTY_SOURCE_LOAD_PARALLELISM;
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_PROPERTY_SOURCE_LOAD_TIMEOUT;
 import static com.alibaba.nacos.spring.util.NacosBeanUtils.getConfigServiceBeanBuilder;
 import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosServiceFactoryBean;
+import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosStartupRecorderIfPresent;
 import static com.alibaba.nacos.spring.util.NacosUtils.DEFAULT_STRING_ATTRIBUTE_VALUE;
+import static com.alibaba.nacos.spring.util.NacosUtils.DEFAULT_TIMEOUT;
+import static com.alibaba.nacos.spring.util.NacosUtils.buildDefaultPropertySourceName;
+import static com.alibaba.nacos.spring.util.NacosUtils.getContent;
+import static com.alibaba.nacos.spring.util.NacosUtils.toPropertyMap;
 import static org.springframework.util.ObjectUtils.nullSafeEquals;
 
 /**
@@ -82,6 +110,9 @@ public class NacosPropertySourcePostProcessor
 
 	private static BeanFactory beanFactory;
 
+	private static final Logger logger = LoggerFactory
+			.getLogger(NacosPropertySourcePostProcessor.class);
+
 	private final Set<String> processedBeanNames = new LinkedHashSet<String>();
 
 	private ConfigurableEnvironment environment;
@@ -98,29 +129,35 @@ public class NacosPropertySourcePostProcessor
 			return;
 		}
 
+		long startTime = NacosStartupRecorder.start();
 		final String dataId = nacosPropertySource.getDataId();
 		final String groupId = nacosPropertySource.getGroupId();
 		final String type = nacosPropertySource.getType();
 		final NacosServiceFactory nacosServiceFactory = getNacosServiceFactoryBean(
 				beanFactory);
+		final NacosConfigSnapshotStore snapshotStore = NacosConfigSnapshotStore
+				.getInstance(environment);
+		final String snapshotKey = snapshotStore == null ? null
+				: NacosConfigSnapshotStore.key(dataId, groupId,
+						nacosPropertySource.getProperties() == null ? properties
+								: nacosPropertySource.getProperties());
 
 		try {
 
-			ConfigService configService = nacosServiceFactory
+			final ConfigService configService = nacosServiceFactory
 					.createConfigService(properties);
 
 			Listener listener = new AbstractListener() {
 
 				@Override
 				public void receiveConfigInfo(String config) {
-					String name = nacosPropertySource.getName();
-					NacosPropertySource newNacosPropertySource = new NacosPropertySource(
-							dataId, groupId, name, config, type);
-					newNacosPropertySource.copy(nacosPropertySource);
-					MutablePropertySources propertySources = environment
-							.getPropertySources();
-					// replace NacosPropertySource
-					propertySources.replace(name, newNacosPropertySource);
+					synchronized (nacosPropertySource) {
+						if (refreshNacosPropertySource(nacosPropertySource,
+								configService, config, environment)
+								&& snapshotStore != null && config != null) {
+							snapshotStore.put(snapshotKey, config);
+						}
+					}
 				}
 			};
 
@@ -132,12 +169,154 @@ public class NacosPropertySourcePostProcessor
 				configService.addListener(dataId, groupId, listener);
 			}
 
+			if (snapshotStore != null) {
+				reconcileInBackground(nacosPropertySource, configService, snapshotStore,
+						snapshotKey, environment);
+			}
+
 		}
 		catch (NacosException e) {
 			throw new RuntimeException(
 					"ConfigService can't add Listener with properties : " + properties,
 					e);
 		}
+		NacosStartupRecorder recorder = getNacosStartupRecorderIfPresent(beanFactory);
+		if (recorder != null) {
+			recorder.record(LISTENER_REGISTRATION,
+					NacosStartupRecorder.configName(dataId, groupId), startTime);
+		}
+	}
+
+	/**
+	 * Apply the config received to the {@link NacosPropertySource} in the
+	 * {@link org.springframework.core.env.Environment}, nothing is done if no property
+	 * has changed
+	 *
+	 * @return <code>false</code> if the config is rejected since it exceeds one of the
+	 *     {@link com.alibaba.nacos.spring.util.ConfigParseLimits}, the previous one is
+	 *     kept
+	 */
+	private static boolean refreshNacosPropertySource(
+			NacosPropertySource nacosPropertySource, ConfigService configService,
+			String config, ConfigurableEnvironment environment) {
+		String dataId = nacosPropertySource.getDataId();
+		String groupId = nacosPropertySource.getGroupId();
+		String type = nacosPropertySource.getType();
+		String name = nacosPropertySource.getName();
+		Map<String, Object> newProperties;
+		try {
+			newProperties = toPropertyMap(dataId, groupId, config, type, environment);
+		}
+		catch (ConfigParseLimitException e) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("The config of dataId[" + dataId + "] groupId[" + groupId
+						+ "] is rejected, the previous one is kept : " + e.getMessage());
+			}
+			if (configService instanceof EventPublishingConfigService) {
+				((EventPublishingConfigService) configService)
+						.publishEvent(new NacosConfigRejectedEvent(configService, dataId,
+								groupId, type, e.getLimitProperty(), e.getMessage()));
+			}
+			return false;
+		}
+		MutablePropertySources propertySources = environment.getPropertySources();
+		org.springframework.core.env.PropertySource<?> propertySource = propertySources
+				.get(name);
+		NacosCompositePropertySource compositePropertySource = null;
+		if (propertySource == null) {
+			compositePropertySource = findCompositePropertySource(propertySources, name);
+			if (compositePropertySource != null) {
+				propertySource = compositePropertySource.getPropertySource(name);
+			}
+		}
+		PropertiesDiff diff = diff(propertySource, newProperties);
+		if (diff.isEmpty()) { // Keep the current one if nothing changed
+			return true;
+		}
+		if (compositePropertySource != null) {
+			// Swap the properties and re-merge the changed keys
+			compositePropertySource.setSource((NacosPropertySource) propertySource,
+					newProperties, diff.getKeys());
+		}
+		else if (propertySource instanceof NacosPropertySource) {
+			// Swap the properties of the current NacosPropertySource
+			((NacosPropertySource) propertySource).setSource(newProperties);
+		}
+		else {
+			NacosPropertySource newNacosPropertySource = new NacosPropertySource(name,
+					newProperties, type);
+			newNacosPropertySource.copy(nacosPropertySource);
+			// replace NacosPropertySource
+			propertySources.replace(name, newNacosPropertySource);
+		}
+		if (configService instanceof EventPublishingConfigService) {
+			((EventPublishingConfigService) configService)
+					.publishEvent(new NacosPropertySourceChangedEvent(configService,
+							dataId, groupId, name, diff));
+		}
+		return true;
+	}
+
+	/**
+	 * Get the config from the server in the background, and apply it as if it were
+	 * received by the listener if it differs from the snapshot booted from. It's skipped
+	 * if the listener has received a config meanwhile.
+	 */
+	private static void reconcileInBackground(
+			final NacosPropertySource nacosPropertySource,
+			final ConfigService configService,
+			final NacosConfigSnapshotStore snapshotStore, final String snapshotKey,
+			final ConfigurableEnvironment environment) {
+		final String snapshot = snapshotStore.get(snapshotKey);
+		snapshotStore.execute(new Runnable() {
+			@Override
+			public void run() {
+				String dataId = nacosPropertySource.getDataId();
+				String groupId = nacosPropertySource.getGroupId();
+				String config = getContent(configService, dataId, groupId);
+				if (config == null) { // Unavailable, the listener will catch up
+					return;
+				}
+				synchronized (nacosPropertySource) {
+					String current = snapshotStore.get(snapshotKey);
+					if (!nullSafeEquals(current, snapshot) || config.equals(current)) {
+						return;
+					}
+					if (!refreshNacosPropertySource(nacosPropertySource,
+							configService, config, environment)) {
+						return;
+					}
+					snapshotStore.put(snapshotKey, config);
+				}
+				if (configService instanceof EventPublishingConfigService) {
+					((EventPublishingConfigService) configService)
+							.publishEvent(new NacosConfigReceivedEvent(configService,
+									dataId, groupId, config,
+									nacosPropertySource.getType()));
+				}
+			}
+		});
+	}
+
+	private static NacosCompositePropertySource findCompositePropertySource(
+			MutablePropertySources propertySources, String name) {
+		for (org.springframework.core.env.PropertySource<?> propertySource : propertySources) {
+			if (propertySource instanceof NacosCompositePropertySource) {
+				NacosCompositePropertySource compositePropertySource = (NacosCompositePropertySource) propertySource;
+				if (compositePropertySource.getPropertySource(name) != null) {
+					return compositePropertySource;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static PropertiesDiff diff(
+			org.springframework.core.env.PropertySource<?> propertySource,
+			Map<String, Object> newProperties) {
+		Object source = propertySource == null ? null : propertySource.getSource();
+		Map<?, ?> properties = source instanceof Map ? (Map<?, ?>) source : null;
+		return PropertiesDiff.diff(properties, newProperties);
 	}
 
 	@Override
@@ -164,10 +343,106 @@ public class NacosPropertySourcePostProcessor
 
 		String[] beanNames = beanFactory.getBeanDefinitionNames();
 
-		for (String beanName : beanNames) {
-			processPropertySource(beanName, beanFactory);
+		int parallelism = environment.getProperty(
+				NACOS_CONFIG_PROPERTY_SOURCE_LOAD_PARALLELISM, int.class, 1);
+
+		if (parallelism > 1) {
+			processPropertySourcesConcurrently(beanNames, beanFactory, parallelism);
+		}
+		else {
+			for (String beanName : beanNames) {
+				processPropertySource(beanName, beanFactory);
+			}
+		}
+
+		if (environment.getProperty(NACOS_CONFIG_COMPOSITE_PROPERTY_SOURCE,
+				boolean.class, false)) {
+			compositeNacosPropertySources();
+		}
+
+	}
+
+	/**
+	 * Merge each run of adjacent {@link NacosPropertySource}s into a
+	 * {@link NacosCompositePropertySource} at the same position, so that their
+	 * precedence, including the one from first, before and after, is kept. The merged
+	 * ones can't be found by name any more, so the ones which may be referenced by name
+	 * are left alone and end a run.
+	 */
+	private void compositeNacosPropertySources() {
+		MutablePropertySources propertySources = environment.getPropertySources();
+		Set<String> referencedNames = new HashSet<String>();
+		for (org.springframework.core.env.PropertySource<?> propertySource : propertySources) {
+			if (propertySource instanceof NacosPropertySource) {
+				NacosPropertySource nacosPropertySource = (NacosPropertySource) propertySource;
+				referencedNames.add(nacosPropertySource.getBefore());
+				referencedNames.add(nacosPropertySource.getAfter());
+			}
+		}
+		List<List<NacosPropertySource>> runs = new ArrayList<List<NacosPropertySource>>();
+		List<NacosPropertySource> run = new ArrayList<NacosPropertySource>();
+		for (org.springframework.core.env.PropertySource<?> propertySource : propertySources) {
+			if (propertySource instanceof NacosPropertySource && isCompositable(
+					(NacosPropertySource) propertySource, referencedNames)) {
+				run.add((NacosPropertySource) propertySource);
+				continue;
+			}
+			if (run.size() > 1) {
+				runs.add(run);
+			}
+			run = new ArrayList<NacosPropertySource>();
+		}
+		if (run.size() > 1) {
+			runs.add(run);
 		}
 
+		int index = 0;
+		for (List<NacosPropertySource> nacosPropertySources : runs) {
+			// The composites of the previous invocations keep their names
+			String name;
+			do {
+				name = index == 0 ? NacosCompositePropertySource.NAME
+						: NacosCompositePropertySource.NAME + "#" + index;
+				index++;
+			}
+			while (propertySources.contains(name));
+			propertySources.replace(nacosPropertySources.get(0).getName(),
+					new NacosCompositePropertySource(name, nacosPropertySources));
+			for (int j = 1; j < nacosPropertySources.size(); j++) {
+				propertySources.remove(nacosPropertySources.get(j).getName());
+			}
+		}
+	}
+
+	/**
+	 * Whether the {@link NacosPropertySource} is never referenced by name, i.e. its name
+	 * is the default one rather than a name given to refer to it, and it's not the
+	 * before or after of another {@link NacosPropertySource}
+	 */
+	private static boolean isCompositable(NacosPropertySource nacosPropertySource,
+			Set<String> referencedNames) {
+		String name = nacosPropertySource.getName();
+		Properties properties = nacosPropertySource.getProperties();
+		return properties != null && !referencedNames.contains(name)
+				&& name.equals(buildDefaultPropertySourceName(
+						nacosPropertySource.getDataId(),
+						nacosPropertySource.getGroupId(), properties));
+	}
+
+	/**
+	 * Resolve the name a {@link NacosPropertySource} is added before or after, the one
+	 * merged into a {@link NacosCompositePropertySource} is resolved as the latter
+	 */
+	private static String resolveRelativeName(MutablePropertySources propertySources,
+			String name) {
+		if (!propertySources.contains(name)) {
+			NacosCompositePropertySource compositePropertySource = findCompositePropertySource(
+					propertySources, name);
+			if (compositePropertySource != null) {
+				return compositePropertySource.getName();
+			}
+		}
+		return name;
 	}
 
 	private void processPropertySource(String beanName,
@@ -194,13 +469,134 @@ public class NacosPropertySourcePostProcessor
 		processedBeanNames.add(beanName);
 	}
 
-	private List<NacosPropertySource> buildNacosPropertySources(String beanName,
+	/**
+	 * Resolve all declared {@link NacosPropertySource}s first, then load and parse them
+	 * concurrently within one deadline, and add them in the declared order. The
+	 * placeholders of their dataId, groupId and properties are resolved before any of
+	 * them is added.
+	 */
+	private void processPropertySourcesConcurrently(String[] beanNames,
+			ConfigurableListableBeanFactory beanFactory, int parallelism) {
+
+		List<NacosPropertySourceBuildTask> tasks = new ArrayList<NacosPropertySourceBuildTask>();
+
+		for (String beanName : beanNames) {
+			if (processedBeanNames.contains(beanName)) {
+				continue;
+			}
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+			AbstractNacosPropertySourceBuilder builder = findBuilder(beanDefinition);
+			if (builder != null) {
+				List<Map<String, Object>> attributesList = builder
+						.resolveRuntimeAttributesList(beanDefinition);
+				for (Map<String, Object> attributes : attributesList) {
+					tasks.add(new NacosPropertySourceBuildTask(beanName, beanDefinition,
+							builder, attributes));
+				}
+			}
+			processedBeanNames.add(beanName);
+		}
+
+		if (tasks.isEmpty()) {
+			return;
+		}
+
+		parallelism = Math.min(parallelism, tasks.size());
+		// By default, the time the pool takes if every config load times out
+		long defaultTimeout = DEFAULT_TIMEOUT
+				* ((tasks.size() + parallelism - 1) / parallelism + 1);
+		long timeout = environment.getProperty(NACOS_CONFIG_PROPERTY_SOURCE_LOAD_TIMEOUT,
+				long.class, defaultTimeout);
+
+		List<Future<NacosPropertySource>> futures = invokeAll(tasks, parallelism,
+				timeout);
+
+		for (int i = 0; i < tasks.size(); i++) {
+			NacosPropertySourceBuildTask task = tasks.get(i);
+			NacosPropertySource nacosPropertySource = getNacosPropertySource(task,
+					futures.get(i), timeout);
+			task.builder.publishMetadataEvent(nacosPropertySource, task.beanDefinition);
+			addNacosPropertySource(nacosPropertySource);
+			Properties properties = configServiceBeanBuilder
+					.resolveProperties(nacosPropertySource.getAttributesMetadata());
+			addListenerIfAutoRefreshed(nacosPropertySource, properties, environment);
+		}
+	}
+
+	private List<Future<NacosPropertySource>> invokeAll(
+			List<NacosPropertySourceBuildTask> tasks, int parallelism, long timeout) {
+		ExecutorService executorService = Executors.newFixedThreadPool(parallelism,
+				new ThreadFactory() {
+					private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r);
+						thread.setName("NacosPropertySourceLoader-"
+								+ threadNumber.getAndIncrement());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		try {
+			// The tasks not done in time are cancelled
+			return executorService.invokeAll(tasks, timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(
+					"Interrupted while loading NacosPropertySources", e);
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private NacosPropertySource getNacosPropertySource(
+			NacosPropertySourceBuildTask task, Future<NacosPropertySource> future,
+			long timeout) {
+		if (future.isCancelled()) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("NacosPropertySource of bean [" + task.beanName
+						+ "] can't be loaded within " + timeout
+						+ " ms, it's added without config");
+			}
+			return task.builder.buildWithoutConfig(task.beanName, task.beanDefinition,
+					task.attributes);
+		}
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(
+					"Interrupted while loading NacosPropertySources", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	private AbstractNacosPropertySourceBuilder findBuilder(
 			BeanDefinition beanDefinition) {
 		for (AbstractNacosPropertySourceBuilder builder : nacosPropertySourceBuilders) {
 			if (builder.supports(beanDefinition)) {
-				return builder.build(beanName, beanDefinition);
+				return builder;
 			}
 		}
+		return null;
+	}
+
+	private List<NacosPropertySource> buildNacosPropertySources(String beanName,
+			BeanDefinition beanDefinition) {
+		AbstractNacosPropertySourceBuilder builder = findBuilder(beanDefinition);
+		if (builder != null) {
+			return builder.build(beanName, beanDefinition);
+		}
 		return Collections.emptyList();
 	}
 
@@ -222,10 +618,12 @@ public class NacosPropertySourcePostProcessor
 		}
 		else if (isRelative) { // If relative
 			if (hasBefore) {
-				propertySources.addBefore(before, nacosPropertySource);
+				propertySources.addBefore(resolveRelativeName(propertySources, before),
+						nacosPropertySource);
 			}
 			if (hasAfter) {
-				propertySources.addAfter(after, nacosPropertySource);
+				propertySources.addAfter(resolveRelativeName(propertySources, after),
+						nacosPropertySource);
 			}
 		}
 		else {
@@ -250,4 +648,33 @@ public class NacosPropertySourcePostProcessor
 		this.environment = (ConfigurableEnvironment) environment;
 	}
 
+	/**
+	 * Loads and parses one declared {@link NacosPropertySource}
+	 */
+	private static class NacosPropertySourceBuildTask
+			implements Callable<NacosPropertySource> {
+
+		private final String beanName;
+
+		private final BeanDefinition beanDefinition;
+
+		private final AbstractNacosPropertySourceBuilder builder;
+
+		private final Map<String, Object> attributes;
+
+		NacosPropertySourceBuildTask(String beanName, BeanDefinition beanDefinition,
+				AbstractNacosPropertySourceBuilder builder,
+				Map<String, Object> attributes) {
+			this.beanName = beanName;
+			this.beanDefinition = beanDefinition;
+			this.builder = builder;
+			this.attributes = attributes;
+		}
+
+		@Override
+		public NacosPropertySource call() {
+			return builder.doBuild(beanName, beanDefinition, attributes);
+		}
+	}
+
 }
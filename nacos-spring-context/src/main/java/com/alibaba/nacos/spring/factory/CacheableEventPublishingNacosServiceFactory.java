@@ -31,11 +31,14 @@ import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingMaintainService;
 import com.alibaba.nacos.api.naming.NamingService;
 import com.alibaba.nacos.spring.context.event.config.EventPublishingConfigService;
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 
+import static com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase.SERVICE_CREATION;
+import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosStartupRecorderIfPresent;
 import static com.alibaba.nacos.spring.util.NacosBeanUtils.getNacosConfigListenerExecutorIfPresent;
 import static com.alibaba.nacos.spring.util.NacosUtils.identify;
 
@@ -243,18 +246,30 @@ public class CacheableEventPublishingNacosServiceFactory implements NacosService
 		public ConfigService run(Properties properties, ConfigService service)
 				throws NacosException {
 			String cacheKey = identify(properties);
-			ConfigService configService = configServicesCache.get(cacheKey);
-
-			if (configService == null) {
-				if (service == null) {
-					service = NacosFactory.createConfigService(properties);
+			// NacosPropertySources may be loaded concurrently
+			synchronized (configServicesCache) {
+				ConfigService configService = configServicesCache.get(cacheKey);
+
+				if (configService == null) {
+					long startTime = NacosStartupRecorder.start();
+					if (service == null) {
+						service = NacosFactory.createConfigService(properties);
+					}
+					configService = new EventPublishingConfigService(service,
+							properties, getSingleton().context,
+							getSingleton().nacosConfigListenerExecutor);
+					configServicesCache.put(cacheKey, configService);
+					ConfigurableApplicationContext context = getSingleton().context;
+					NacosStartupRecorder recorder = context != null && context.isActive()
+							? getNacosStartupRecorderIfPresent(context)
+							: null;
+					if (recorder != null) {
+						recorder.record(SERVICE_CREATION,
+								NacosStartupRecorder.serviceName(properties), startTime);
+					}
 				}
-				configService = new EventPublishingConfigService(service, properties,
-						getSingleton().context,
-						getSingleton().nacosConfigListenerExecutor);
-				configServicesCache.put(cacheKey, configService);
+				return configService;
 			}
-			return configService;
 		}
 	}
 
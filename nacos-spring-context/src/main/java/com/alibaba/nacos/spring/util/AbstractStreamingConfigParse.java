@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Properties;
+
+/**
+ * The {@link StreamingConfigParse} which parses into a new {@link Properties} as a
+ * {@link ConfigParse}
+ *
+ * @since 0.3.6
+ */
+public abstract class AbstractStreamingConfigParse extends AbstractConfigParse
+		implements StreamingConfigParse {
+
+	@Override
+	public Properties parse(String configText) {
+		final Properties properties = new Properties();
+		parse(configText, new Sink() {
+			@Override
+			public void put(String key, Object value) {
+				properties.put(key, value);
+			}
+		});
+		return properties;
+	}
+
+}
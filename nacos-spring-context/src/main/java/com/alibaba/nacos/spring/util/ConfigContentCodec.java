@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the content of a large config as gzip compressed and Base64 encoded text,
+ * after the {@link #GZIP_BASE64_HEADER header} that it's recognized by, and decodes it
+ * back as a stream before it's parsed, so that any type of config is published and
+ * received in a smaller payload.
+ * <p>
+ * The content is decoded as it's received whether it's encoded by this client or not,
+ * while it's encoded only above the threshold, since the clients not decoding it can't
+ * read it.
+ *
+ * @see com.alibaba.nacos.spring.context.constants.NacosConstants#NACOS_CONFIG_COMPRESSION_THRESHOLD
+ * @since 0.3.6
+ */
+public abstract class ConfigContentCodec {
+
+	/**
+	 * The header of the encoded content, the first line
+	 */
+	public static final String GZIP_BASE64_HEADER = "#nacos-content-encoding:gzip+base64\n";
+
+	private static final String ENCODING = "UTF-8";
+
+	private static final char[] BASE64_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.toCharArray();
+
+	private static final int[] BASE64_VALUES = new int[128];
+
+	static {
+		for (int i = 0; i < BASE64_VALUES.length; i++) {
+			BASE64_VALUES[i] = -1;
+		}
+		for (int i = 0; i < BASE64_CHARS.length; i++) {
+			BASE64_VALUES[BASE64_CHARS[i]] = i;
+		}
+	}
+
+	/**
+	 * Encode the content if it's larger than the threshold and smaller once encoded
+	 *
+	 * @param content the content, may be <code>null</code>
+	 * @param threshold the size in bytes of the content encoded above, negative never
+	 * @return the encoded content, or the content as it is
+	 */
+	public static String encode(String content, int threshold) {
+		if (content == null || threshold < 0 || content.length() <= threshold / 3) {
+			return content;
+		}
+		try {
+			byte[] bytes = content.getBytes(ENCODING);
+			if (bytes.length <= threshold) {
+				return content;
+			}
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(
+					bytes.length / 4);
+			GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+			gzip.write(bytes);
+			gzip.close();
+			String encoded = GZIP_BASE64_HEADER + base64(compressed.toByteArray());
+			// The payloads are compared in UTF-8, the encoded text is ASCII
+			return encoded.length() < bytes.length ? encoded : content;
+		}
+		catch (IOException e) {
+			// Never thrown in memory
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @param content the content, may be <code>null</code>
+	 * @return whether the content is encoded
+	 */
+	public static boolean isEncoded(String content) {
+		return content != null && content.startsWith(GZIP_BASE64_HEADER);
+	}
+
+	/**
+	 * Decode the content if it's encoded, it's decompressed as a stream, as large as the
+	 * {@link ConfigParseLimits content limit}
+	 *
+	 * @param content the content, may be <code>null</code>
+	 * @return the decoded content, or the content as it is
+	 * @throws IllegalArgumentException if the content encoded is malformed
+	 * @throws ConfigParseLimitException if the content decoded is too large
+	 */
+	public static String decode(String content) {
+		if (!isEncoded(content)) {
+			return content;
+		}
+		try {
+			Reader reader = new InputStreamReader(
+					new LimitedInputStream(new GZIPInputStream(new Base64InputStream(
+							content, GZIP_BASE64_HEADER.length()))),
+					ENCODING);
+			try {
+				StringBuilder decoded = new StringBuilder(content.length());
+				char[] buffer = new char[4096];
+				int length;
+				while ((length = reader.read(buffer)) != -1) {
+					decoded.append(buffer, 0, length);
+				}
+				return decoded.toString();
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException(
+					"Malformed content encoded as gzip+base64 : " + e.getMessage(), e);
+		}
+	}
+
+	private static String base64(byte[] bytes) {
+		StringBuilder builder = new StringBuilder((bytes.length + 2) / 3 * 4);
+		for (int i = 0; i < bytes.length; i += 3) {
+			int remaining = bytes.length - i;
+			int bits = (bytes[i] & 0xff) << 16;
+			if (remaining > 1) {
+				bits |= (bytes[i + 1] & 0xff) << 8;
+			}
+			if (remaining > 2) {
+				bits |= bytes[i + 2] & 0xff;
+			}
+			builder.append(BASE64_CHARS[bits >>> 18 & 0x3f]);
+			builder.append(BASE64_CHARS[bits >>> 12 & 0x3f]);
+			builder.append(remaining > 1 ? BASE64_CHARS[bits >>> 6 & 0x3f] : '=');
+			builder.append(remaining > 2 ? BASE64_CHARS[bits & 0x3f] : '=');
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Decodes the Base64 text from an offset of a {@link String} as it's read, the
+	 * whitespaces are ignored
+	 */
+	private static class Base64InputStream extends InputStream {
+
+		private final String text;
+
+		private int position;
+
+		private final byte[] decoded = new byte[3];
+
+		private int decodedPosition;
+
+		private int decodedLength;
+
+		Base64InputStream(String text, int offset) {
+			this.text = text;
+			this.position = offset;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (decodedPosition == decodedLength && !decodeQuantum()) {
+				return -1;
+			}
+			return decoded[decodedPosition++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			int count = 0;
+			while (count < length) {
+				if (decodedPosition == decodedLength && !decodeQuantum()) {
+					break;
+				}
+				int n = Math.min(length - count, decodedLength - decodedPosition);
+				System.arraycopy(decoded, decodedPosition, bytes, offset + count, n);
+				decodedPosition += n;
+				count += n;
+			}
+			return count == 0 && length > 0 ? -1 : count;
+		}
+
+		/**
+		 * @return <code>false</code> if the text ends
+		 */
+		private boolean decodeQuantum() throws IOException {
+			int bits = 0;
+			int chars = 0;
+			int padding = 0;
+			while (chars < 4) {
+				if (position == text.length()) {
+					if (chars == 0) {
+						return false;
+					}
+					throw new IOException("Truncated Base64 text");
+				}
+				char c = text.charAt(position++);
+				if (Character.isWhitespace(c)) {
+					continue;
+				}
+				int value;
+				if (c == '=' && chars >= 2) {
+					padding++;
+					value = 0;
+				}
+				else if (c < 128 && padding == 0 && (value = BASE64_VALUES[c]) >= 0) {
+					// A value
+				}
+				else {
+					throw new IOException(
+							"Illegal Base64 character '" + c + "' at " + (position - 1));
+				}
+				bits = bits << 6 | value;
+				chars++;
+			}
+			decoded[0] = (byte) (bits >>> 16);
+			decoded[1] = (byte) (bits >>> 8);
+			decoded[2] = (byte) bits;
+			decodedPosition = 0;
+			decodedLength = 3 - padding;
+			return true;
+		}
+	}
+
+	/**
+	 * Counts the bytes decompressed against the {@link ConfigParseLimits content limit}
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+
+		private long count;
+
+		LimitedInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				ConfigParseLimits.checkContentBytes(++count);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			int n = super.read(bytes, offset, length);
+			if (n > 0) {
+				count += n;
+				ConfigParseLimits.checkContentBytes(count);
+			}
+			return n;
+		}
+	}
+
+}
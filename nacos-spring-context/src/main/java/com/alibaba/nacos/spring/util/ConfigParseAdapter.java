@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Adapts a {@link ConfigParse} which is not a {@link StreamingConfigParse}
+ *
+ * @since 0.3.6
+ */
+class ConfigParseAdapter implements StreamingConfigParse {
+
+	private final ConfigParse configParse;
+
+	ConfigParseAdapter(ConfigParse configParse) {
+		this.configParse = configParse;
+	}
+
+	static StreamingConfigParse adapt(ConfigParse configParse) {
+		return configParse instanceof StreamingConfigParse
+				? (StreamingConfigParse) configParse
+				: new ConfigParseAdapter(configParse);
+	}
+
+	@Override
+	public void parse(String configText, Sink sink) {
+		Properties properties = configParse.parse(configText);
+		if (properties == null) {
+			return;
+		}
+		for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+			sink.put(String.valueOf(entry.getKey()), entry.getValue());
+		}
+	}
+
+	@Override
+	public Properties parse(String configText) {
+		return configParse.parse(configText);
+	}
+
+	@Override
+	public String processType() {
+		return configParse.processType();
+	}
+
+	@Override
+	public String dataId() {
+		return configParse.dataId();
+	}
+
+	@Override
+	public String group() {
+		return configParse.group();
+	}
+
+}
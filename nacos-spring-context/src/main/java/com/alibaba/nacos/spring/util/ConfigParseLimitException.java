@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+/**
+ * The config is rejected since it exceeds one of the {@link ConfigParseLimits}
+ *
+ * @see ConfigParseLimits
+ * @since 0.3.6
+ */
+public class ConfigParseLimitException extends IllegalStateException {
+
+	private final String limitProperty;
+
+	private final long limit;
+
+	/**
+	 * @param limitProperty the name of the System property of the limit
+	 * @param limit the value of the limit
+	 * @param message the limit exceeded
+	 */
+	public ConfigParseLimitException(String limitProperty, long limit, String message) {
+		super(message + " exceeds the limit " + limit + " set by the System property "
+				+ limitProperty);
+		this.limitProperty = limitProperty;
+		this.limit = limit;
+	}
+
+	/**
+	 * @return the name of the System property of the limit exceeded
+	 */
+	public String getLimitProperty() {
+		return limitProperty;
+	}
+
+	/**
+	 * @return the value of the limit exceeded
+	 */
+	public long getLimit() {
+		return limit;
+	}
+
+}
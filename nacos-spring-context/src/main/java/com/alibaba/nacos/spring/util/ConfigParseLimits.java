@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+/**
+ * The limits of the configs parsed, enforced while parsing them, so that a config
+ * published by mistake, too large or expanding too much, is rejected instead of
+ * exhausting the memory or the CPU. They are set by the System properties.
+ * <p>
+ * Unlike the settings read from the Spring {@link org.springframework.core.env.Environment},
+ * the limits are global to the JVM: the parsed configs are shared by all the application
+ * contexts through the cache of {@link ConfigParseUtils}, which isn't keyed by the
+ * limits, so a content accepted by one context would otherwise be served to another
+ * one rejecting it. The configs may also be parsed where no
+ * {@link org.springframework.core.env.Environment} is at hand, e.g. by
+ * {@link com.alibaba.nacos.spring.core.env.NacosPropertySource}.
+ *
+ * @see ConfigParseLimitException
+ * @since 0.3.6
+ */
+public final class ConfigParseLimits {
+
+	/**
+	 * The System property of the max size in bytes of the content, encoded as UTF-8
+	 */
+	public static final String MAX_CONTENT_BYTES_PROPERTY = "nacos.config.parse.max.content.bytes";
+
+	/**
+	 * The System property of the max number of the properties parsed
+	 */
+	public static final String MAX_KEYS_PROPERTY = "nacos.config.parse.max.keys";
+
+	/**
+	 * The System property of the max nesting depth of the mappings, sequences, objects,
+	 * arrays and elements
+	 */
+	public static final String MAX_DEPTH_PROPERTY = "nacos.config.parse.max.depth";
+
+	/**
+	 * The System property of the max number of the nodes expanded by the YAML aliases,
+	 * or of the XML entities expanded
+	 */
+	public static final String MAX_EXPANSIONS_PROPERTY = "nacos.config.parse.max.expansions";
+
+	private static final int MAX_CONTENT_BYTES = Integer
+			.getInteger(MAX_CONTENT_BYTES_PROPERTY, 10 * 1024 * 1024);
+
+	private static final int MAX_KEYS = Integer.getInteger(MAX_KEYS_PROPERTY, 100000);
+
+	private static final int MAX_DEPTH = Integer.getInteger(MAX_DEPTH_PROPERTY, 100);
+
+	private static final int MAX_EXPANSIONS = Integer.getInteger(MAX_EXPANSIONS_PROPERTY,
+			10000);
+
+	private ConfigParseLimits() {
+	}
+
+	/**
+	 * Check the size of the content
+	 *
+	 * @param content the content
+	 * @throws ConfigParseLimitException if it's too large
+	 */
+	public static void checkContent(String content) {
+		// A char is encoded in 3 bytes at most, a surrogate pair in 4
+		if ((long) content.length() * 3 <= MAX_CONTENT_BYTES) {
+			return;
+		}
+		long bytes = 0;
+		for (int i = 0; i < content.length(); i++) {
+			char c = content.charAt(i);
+			bytes += c < 0x80 ? 1
+					: c < 0x800 || Character.isHighSurrogate(c)
+							|| Character.isLowSurrogate(c) ? 2 : 3;
+		}
+		checkContentBytes(bytes);
+	}
+
+	/**
+	 * @param bytes the size in bytes of the content, or of the part of it read so far
+	 * @throws ConfigParseLimitException if it's too large
+	 */
+	public static void checkContentBytes(long bytes) {
+		if (bytes > MAX_CONTENT_BYTES) {
+			throw new ConfigParseLimitException(MAX_CONTENT_BYTES_PROPERTY,
+					MAX_CONTENT_BYTES, "The size " + bytes + " bytes of the content");
+		}
+	}
+
+	/**
+	 * @param keys the number of the properties parsed so far
+	 * @throws ConfigParseLimitException if there are too many
+	 */
+	public static void checkKeys(int keys) {
+		if (keys > MAX_KEYS) {
+			throw new ConfigParseLimitException(MAX_KEYS_PROPERTY, MAX_KEYS,
+					"The number of the properties");
+		}
+	}
+
+	/**
+	 * @param depth the nesting depth reached
+	 * @throws ConfigParseLimitException if it's too deep
+	 */
+	public static void checkDepth(int depth) {
+		if (depth > MAX_DEPTH) {
+			throw new ConfigParseLimitException(MAX_DEPTH_PROPERTY, MAX_DEPTH,
+					"The nesting depth");
+		}
+	}
+
+	/**
+	 * @param expansions the number of the expansions so far
+	 * @throws ConfigParseLimitException if there are too many
+	 */
+	public static void checkExpansions(long expansions) {
+		if (expansions > MAX_EXPANSIONS) {
+			throw new ConfigParseLimitException(MAX_EXPANSIONS_PROPERTY, MAX_EXPANSIONS,
+					"The number of the expansions");
+		}
+	}
+
+	/**
+	 * @return the max number of the expansions
+	 */
+	public static int getMaxExpansions() {
+		return MAX_EXPANSIONS;
+	}
+
+}
@@ -16,18 +16,26 @@
  */
 package com.alibaba.nacos.spring.util;
 
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.nacos.spring.util.parse.DefaultJsonConfigParse;
 import com.alibaba.nacos.spring.util.parse.DefaultPropertiesConfigParse;
 import com.alibaba.nacos.spring.util.parse.DefaultXmlConfigParse;
 import com.alibaba.nacos.spring.util.parse.DefaultYamlConfigParse;
 
+import static com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase.CONFIG_PARSE;
+
 /**
  * @author <a href="mailto:liaochunyhm@live.com">liaochuntao</a>
  * @since 0.3.0
@@ -35,8 +43,38 @@ import com.alibaba.nacos.spring.util.parse.DefaultYamlConfigParse;
 public final class ConfigParseUtils {
 
 	private static final String LINK_CHAR = "#@#";
-	private static Map<String, ConfigParse> DEFAULT_CONFIG_PARSE_MAP = new HashMap(8);
-	private static Map<String, Map<String, ConfigParse>> CUSTOMER_CONFIG_PARSE_MAP = new HashMap(
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * The System property of the max number of the parsed contents shared,
+	 * <code>0</code> disables the sharing. The cache is shared by all the application
+	 * contexts of the JVM, so is its size, as {@link ConfigParseLimits} are.
+	 */
+	public static final String PARSED_CONFIG_CACHE_SIZE_PROPERTY = "nacos.config.parse.cache.size";
+
+	private static final int PARSED_CONFIG_CACHE_SIZE = Integer
+			.getInteger(PARSED_CONFIG_CACHE_SIZE_PROPERTY, 64);
+
+	private static final Map<ParsedConfigKey, ParsedProperties> PARSED_CONFIG_CACHE = Collections
+			.synchronizedMap(new LinkedHashMap<ParsedConfigKey, ParsedProperties>(16,
+					0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<ParsedConfigKey, ParsedProperties> eldest) {
+					return size() > PARSED_CONFIG_CACHE_SIZE;
+				}
+			});
+
+	private static final ParsedProperties EMPTY_PROPERTIES = new ParsedProperties(
+			Collections.<String, Object> emptyMap());
+
+	private static final AtomicLong CACHE_HITS = new AtomicLong();
+
+	private static final AtomicLong CACHE_MISSES = new AtomicLong();
+	private static Map<String, StreamingConfigParse> DEFAULT_CONFIG_PARSE_MAP = new HashMap(
+			8);
+	private static Map<String, Map<String, StreamingConfigParse>> CUSTOMER_CONFIG_PARSE_MAP = new HashMap(
 			8);
 
 	static {
@@ -59,10 +97,13 @@ public final class ConfigParseUtils {
 		// register customer ConfigParse
 		ServiceLoader<ConfigParse> configParses = ServiceLoader.load(ConfigParse.class);
 		StringBuilder sb = new StringBuilder();
-		for (ConfigParse configParse : configParses) {
+		for (ConfigParse customerConfigParse : configParses) {
+			StreamingConfigParse configParse = ConfigParseAdapter
+					.adapt(customerConfigParse);
 			String type = configParse.processType().toLowerCase();
 			if (!CUSTOMER_CONFIG_PARSE_MAP.containsKey(type)) {
-				CUSTOMER_CONFIG_PARSE_MAP.put(type, new HashMap<String, ConfigParse>(1));
+				CUSTOMER_CONFIG_PARSE_MAP.put(type,
+						new HashMap<String, StreamingConfigParse>(1));
 			}
 			sb.setLength(0);
 			sb.append(configParse.dataId()).append(LINK_CHAR).append(configParse.group());
@@ -87,14 +128,19 @@ public final class ConfigParseUtils {
 		if (context == null) {
 			return new Properties();
 		}
+		return copy(parseByDefault(null, null, context, type, null, null));
+	}
+
+	private static ParsedProperties parseByDefault(String dataId, String group,
+			final String context, String type, String[] activeProfiles,
+			NacosStartupRecorder recorder) {
 		// Again the type lowercase, ensure the search
 		type = type.toLowerCase();
 
-		Properties properties = new Properties();
 		if (DEFAULT_CONFIG_PARSE_MAP.containsKey(type)) {
-			ConfigParse configParse = DEFAULT_CONFIG_PARSE_MAP.get(type);
-			properties.putAll(configParse.parse(context));
-			return properties;
+			StreamingConfigParse configParse = DEFAULT_CONFIG_PARSE_MAP.get(type);
+			return parse(configParse, dataId, group, context, activeProfiles,
+					recorder);
 		}
 		else {
 			throw new UnsupportedOperationException(
@@ -114,35 +160,114 @@ public final class ConfigParseUtils {
 	public static Properties toProperties(final String dataId, final String group,
 			final String context, String type) {
 
+		return toProperties(dataId, group, context, type, null);
+	}
+
+	/**
+	 * Parse the config into {@link Properties}, the documents not selected by the active
+	 * profiles are skipped
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param context config context
+	 * @param type config type
+	 * @param activeProfiles the active profiles, all the documents are parsed if
+	 *     <code>null</code>
+	 * @return {@link Properties}
+	 * @see ProfileSelectingConfigParse
+	 */
+	public static Properties toProperties(final String dataId, final String group,
+			final String context, String type, String[] activeProfiles) {
+
 		if (context == null) {
 			return new Properties();
 		}
+		return copy(toPropertyMap(dataId, group, context, type, activeProfiles));
+	}
+
+	/**
+	 * Parse the config into the properties which are immutable and shared, without
+	 * copying them as {@link #toProperties(String, String, String, String)} does
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param context config context
+	 * @param type config type
+	 * @return {@link ParsedProperties}
+	 */
+	public static ParsedProperties toPropertyMap(final String dataId,
+			final String group, final String context, String type) {
+		return toPropertyMap(dataId, group, context, type, null);
+	}
+
+	/**
+	 * Parse the config into the properties which are immutable and shared, the documents
+	 * not selected by the active profiles are skipped
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param context config context
+	 * @param type config type
+	 * @param activeProfiles the active profiles, all the documents are parsed if
+	 *     <code>null</code>
+	 * @return {@link ParsedProperties}
+	 * @see ProfileSelectingConfigParse
+	 */
+	public static ParsedProperties toPropertyMap(final String dataId,
+			final String group, final String context, String type,
+			String[] activeProfiles) {
+		return toPropertyMap(dataId, group, context, type, activeProfiles, null);
+	}
+
+	/**
+	 * Parse the config as {@link #toPropertyMap(String, String, String, String, String[])}
+	 * does, and record the parse unless its result is shared
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param context config context
+	 * @param type config type
+	 * @param activeProfiles the active profiles, all the documents are parsed if
+	 *     <code>null</code>
+	 * @param recorder the {@link NacosStartupRecorder} of the parse, or
+	 *     <code>null</code> if it's not recorded
+	 * @return {@link ParsedProperties}
+	 */
+	public static ParsedProperties toPropertyMap(final String dataId,
+			final String group, final String context, String type,
+			String[] activeProfiles, NacosStartupRecorder recorder) {
+
+		if (context == null) {
+			return EMPTY_PROPERTIES;
+		}
 		// Again the type lowercase, ensure the search
 		type = type.toLowerCase();
 
 		String configParseKey = dataId + LINK_CHAR + group;
-		Properties properties = new Properties();
 
 		if (CUSTOMER_CONFIG_PARSE_MAP.isEmpty() || LINK_CHAR.equals(configParseKey)) {
-			return toProperties(context, type);
+			return parseByDefault(dataId, group, context, type, activeProfiles,
+					recorder);
 		}
 		if (CUSTOMER_CONFIG_PARSE_MAP.get(type) == null
 				|| CUSTOMER_CONFIG_PARSE_MAP.get(type).isEmpty()) {
-			return toProperties(context, type);
+			return parseByDefault(dataId, group, context, type, activeProfiles,
+					recorder);
 		}
 		if (CUSTOMER_CONFIG_PARSE_MAP.get(type).get(configParseKey) == null) {
-			return toProperties(context, type);
+			return parseByDefault(dataId, group, context, type, activeProfiles,
+					recorder);
 		}
 		else {
 			if (CUSTOMER_CONFIG_PARSE_MAP.containsKey(type)) {
-				ConfigParse configParse = CUSTOMER_CONFIG_PARSE_MAP.get(type)
+				StreamingConfigParse configParse = CUSTOMER_CONFIG_PARSE_MAP.get(type)
 						.get(configParseKey);
 				if (configParse == null) {
 					throw new NoSuchElementException(
 							"This config can't find ConfigParse to parse");
 				}
-				properties.putAll(configParse.parse(context));
-				return properties;
+				return parse(configParse, dataId, group, context, activeProfiles,
+						recorder);
 			}
 			else {
 				throw new UnsupportedOperationException(
@@ -151,4 +276,131 @@ public final class ConfigParseUtils {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Parse the content once per {@link ConfigParse} and active profiles into the
+	 * properties, the parsed results of the recent contents are shared. Only the parses
+	 * are recorded, not the shared results.
+	 */
+	private static ParsedProperties parse(final StreamingConfigParse configParse,
+			String dataId, String group, String context, String[] activeProfiles,
+			NacosStartupRecorder recorder) {
+		if (!(configParse instanceof ProfileSelectingConfigParse)) {
+			activeProfiles = null;
+		}
+		// Before the content is encoded and digested for the key
+		ConfigParseLimits.checkContent(context);
+		ParsedConfigKey key = new ParsedConfigKey(configParse, context, activeProfiles);
+		ParsedProperties parsed = PARSED_CONFIG_CACHE.get(key);
+		if (parsed == null) {
+			CACHE_MISSES.incrementAndGet();
+			long startTime = NacosStartupRecorder.start();
+			final Map<String, Object> properties = new HashMap<String, Object>();
+			StreamingConfigParse.Sink sink = new StreamingConfigParse.Sink() {
+				@Override
+				public void put(String key, Object value) {
+					properties.put(key, value);
+					ConfigParseLimits.checkKeys(properties.size());
+				}
+			};
+			if (activeProfiles != null) {
+				((ProfileSelectingConfigParse) configParse).parse(context,
+						activeProfiles, sink);
+			}
+			else {
+				configParse.parse(context, sink);
+			}
+			parsed = new ParsedProperties(properties);
+			if (PARSED_CONFIG_CACHE_SIZE > 0) {
+				PARSED_CONFIG_CACHE.put(key, parsed);
+			}
+			if (recorder != null) {
+				recorder.record(CONFIG_PARSE,
+						NacosStartupRecorder.configName(dataId, group), startTime);
+			}
+		}
+		else {
+			CACHE_HITS.incrementAndGet();
+		}
+		return parsed;
+	}
+
+	private static Properties copy(Map<String, Object> parsed) {
+		Properties properties = new Properties();
+		properties.putAll(parsed);
+		return properties;
+	}
+
+	/**
+	 * @return the times the parsed result of a content is shared
+	 */
+	public static long getCacheHits() {
+		return CACHE_HITS.get();
+	}
+
+	/**
+	 * @return the times a content is parsed
+	 */
+	public static long getCacheMisses() {
+		return CACHE_MISSES.get();
+	}
+
+	/**
+	 * The key of a parsed content, which keeps the SHA-256 digest of the content instead
+	 * of the content itself. The {@link ConfigParse} stands for the type, and the
+	 * dataId and group if it's customized for them, so that the same content of other
+	 * configs shares the parsed result.
+	 */
+	private static class ParsedConfigKey {
+
+		private final StreamingConfigParse configParse;
+
+		private final byte[] digest;
+
+		private final String[] activeProfiles;
+
+		private final int hashCode;
+
+		ParsedConfigKey(StreamingConfigParse configParse, String content,
+				String[] activeProfiles) {
+			this.configParse = configParse;
+			this.digest = digest(content);
+			this.activeProfiles = activeProfiles == null ? null
+					: activeProfiles.clone();
+			this.hashCode = 31
+					* (31 * System.identityHashCode(configParse)
+							+ Arrays.hashCode(digest))
+					+ Arrays.hashCode(activeProfiles);
+		}
+
+		private static byte[] digest(String content) {
+			try {
+				return MessageDigest.getInstance("SHA-256")
+						.digest(content.getBytes(UTF_8));
+			}
+			catch (NoSuchAlgorithmException e) {
+				// Every Java platform supports SHA-256
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ParsedConfigKey)) {
+				return false;
+			}
+			ParsedConfigKey that = (ParsedConfigKey) o;
+			return configParse == that.configParse
+					&& Arrays.equals(digest, that.digest)
+					&& Arrays.equals(activeProfiles, that.activeProfiles);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
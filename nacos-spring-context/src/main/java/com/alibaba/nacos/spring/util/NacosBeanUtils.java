@@ -32,6 +32,7 @@ import com.alibaba.nacos.spring.beans.factory.annotation.NamingServiceBeanBuilde
 import com.alibaba.nacos.spring.context.annotation.config.NacosConfigListenerMethodProcessor;
 import com.alibaba.nacos.spring.context.annotation.config.NacosValueAnnotationBeanPostProcessor;
 import com.alibaba.nacos.spring.context.event.LoggingNacosConfigMetadataEventListener;
+import com.alibaba.nacos.spring.context.event.NacosStartupReporter;
 import com.alibaba.nacos.spring.context.properties.config.NacosConfigurationPropertiesBindingPostProcessor;
 import com.alibaba.nacos.spring.core.env.AnnotationNacosPropertySourceBuilder;
 import com.alibaba.nacos.spring.core.env.NacosPropertySourcePostProcessor;
@@ -401,6 +402,10 @@ public abstract class NacosBeanUtils {
 		registerConfigServiceBeanBuilder(registry);
 
 		registerLoggingNacosConfigMetadataEventListener(registry);
+
+		registerNacosStartupRecorder(registry);
+
+		registerNacosStartupReporter(registry);
 	}
 
 	/**
@@ -428,6 +433,27 @@ public abstract class NacosBeanUtils {
 				LoggingNacosConfigMetadataEventListener.class);
 	}
 
+	/**
+	 * Register {@link NacosStartupRecorder} Bean, which records the steps of the context
+	 *
+	 * @param registry {@link BeanDefinitionRegistry}
+	 */
+	private static void registerNacosStartupRecorder(BeanDefinitionRegistry registry) {
+		registerInfrastructureBeanIfAbsent(registry, NacosStartupRecorder.BEAN_NAME,
+				NacosStartupRecorder.class);
+	}
+
+	/**
+	 * Register {@link NacosStartupReporter} Bean, which should be the last
+	 * {@link org.springframework.context.event.ContextRefreshedEvent} listener of Nacos
+	 *
+	 * @param registry {@link BeanDefinitionRegistry}
+	 */
+	private static void registerNacosStartupReporter(BeanDefinitionRegistry registry) {
+		registerInfrastructureBeanIfAbsent(registry, NacosStartupReporter.BEAN_NAME,
+				NacosStartupReporter.class);
+	}
+
 	/**
 	 * Register Nacos Discovery Beans
 	 *
@@ -529,6 +555,22 @@ public abstract class NacosBeanUtils {
 				ExecutorService.class);
 	}
 
+	/**
+	 * Get {@link NacosStartupRecorder} Bean If Present
+	 *
+	 * @param beanFactory {@link BeanFactory}
+	 * @return {@link NacosStartupRecorder} Bean If Present, or <code>null</code>
+	 */
+	public static NacosStartupRecorder getNacosStartupRecorderIfPresent(
+			BeanFactory beanFactory) {
+		if (beanFactory == null
+				|| !beanFactory.containsBean(NacosStartupRecorder.BEAN_NAME)) {
+			return null;
+		}
+		return beanFactory.getBean(NacosStartupRecorder.BEAN_NAME,
+				NacosStartupRecorder.class);
+	}
+
 	/**
 	 * Get {@link ConfigServiceBeanBuilder} Bean
 	 *
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import com.alibaba.nacos.spring.context.event.NacosStartupReport;
+import com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase;
+import com.alibaba.nacos.spring.context.event.NacosStartupReport.Step;
+
+import org.springframework.util.StringUtils;
+
+import static com.alibaba.nacos.api.PropertyKeyConst.ENDPOINT;
+import static com.alibaba.nacos.api.PropertyKeyConst.NAMESPACE;
+import static com.alibaba.nacos.api.PropertyKeyConst.SERVER_ADDR;
+
+/**
+ * Records the {@link Step steps} of the Nacos bootstrap of an
+ * {@link org.springframework.context.ApplicationContext} until they are taken as a
+ * {@link NacosStartupReport}, the steps afterwards are ignored. The steps recorded are
+ * bounded, the ones beyond are counted only.
+ *
+ * @see com.alibaba.nacos.spring.context.event.NacosStartupReporter
+ * @see NacosBeanUtils#getNacosStartupRecorderIfPresent(org.springframework.beans.factory.BeanFactory)
+ * @since 0.3.6
+ */
+public class NacosStartupRecorder {
+
+	/**
+	 * The bean name of {@link NacosStartupRecorder}
+	 */
+	public static final String BEAN_NAME = "nacosStartupRecorder";
+
+	static final int MAX_STEPS = 4096;
+
+	private final List<Step> steps = new ArrayList<Step>();
+
+	private int droppedSteps;
+
+	private boolean reported;
+
+	/**
+	 * @return the start time of a step
+	 */
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Record a step, which is ignored once the report is taken
+	 *
+	 * @param phase {@link Phase}
+	 * @param name "groupId:dataId" of a config, the server address of a service or the
+	 *     name of a bean
+	 * @param startTime the time returned by {@link #start()}
+	 */
+	public void record(Phase phase, String name, long startTime) {
+		Step step = new Step(phase, name, System.nanoTime() - startTime);
+		synchronized (steps) {
+			if (reported) {
+				return;
+			}
+			if (steps.size() < MAX_STEPS) {
+				steps.add(step);
+			}
+			else {
+				droppedSteps++;
+			}
+		}
+	}
+
+	/**
+	 * Take the steps recorded, no step is recorded afterwards
+	 *
+	 * @return non-null
+	 */
+	public NacosStartupReport takeReport() {
+		synchronized (steps) {
+			NacosStartupReport report = new NacosStartupReport(steps, droppedSteps);
+			steps.clear();
+			droppedSteps = 0;
+			reported = true;
+			return report;
+		}
+	}
+
+	/**
+	 * @param dataId dataId
+	 * @param groupId groupId
+	 * @return the name of the steps of a config
+	 */
+	public static String configName(String dataId, String groupId) {
+		return groupId + ":" + dataId;
+	}
+
+	/**
+	 * @param properties the Nacos {@link Properties} of a service
+	 * @return the name of the steps of a service, "serverAddr" or "endpoint", followed
+	 *     by "/namespace" if any
+	 */
+	public static String serviceName(Properties properties) {
+		String name = properties.getProperty(SERVER_ADDR);
+		if (!StringUtils.hasText(name)) {
+			name = properties.getProperty(ENDPOINT);
+		}
+		String namespace = properties.getProperty(NAMESPACE);
+		return StringUtils.hasText(namespace) ? name + "/" + namespace : name;
+	}
+
+}
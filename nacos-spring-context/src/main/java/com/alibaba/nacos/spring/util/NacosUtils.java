@@ -23,12 +23,10 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.regex.Pattern;
 
 import com.alibaba.nacos.api.annotation.NacosProperties;
 import com.alibaba.nacos.api.config.ConfigService;
@@ -210,7 +208,30 @@ public abstract class NacosUtils {
 
 	public static PropertyValues resolvePropertyValues(Object bean, final String prefix,
 			String dataId, String groupId, String content, String type) {
-		final Properties configProperties = toProperties(dataId, groupId, content, type);
+		return resolvePropertyValues(bean, prefix,
+				toPropertyMap(dataId, groupId, content, type));
+	}
+
+	/**
+	 * Resolve the property values of the bean from the documents of the config selected
+	 * by the profiles of the {@link Environment}
+	 *
+	 * @see #getActiveProfiles(Environment)
+	 */
+	public static PropertyValues resolvePropertyValues(Object bean, final String prefix,
+			String dataId, String groupId, String content, String type,
+			Environment environment) {
+		return resolvePropertyValues(bean, prefix,
+				toPropertyMap(dataId, groupId, content, type, environment));
+	}
+
+	/**
+	 * The parsed properties are shared by the binds of the same config, so is their
+	 * {@link PropertyKeyIndex}
+	 */
+	private static PropertyValues resolvePropertyValues(Object bean,
+			final String prefix, final ParsedProperties configProperties) {
+		final PropertyKeyIndex keyIndex = configProperties.getKeyIndex();
 		final MutablePropertyValues propertyValues = new MutablePropertyValues();
 		ReflectionUtils.doWithFields(bean.getClass(),
 				new ReflectionUtils.FieldCallback() {
@@ -226,12 +247,12 @@ public abstract class NacosUtils {
 							if (Collection.class.isAssignableFrom(field.getType())
 									|| Map.class.isAssignableFrom(field.getType())) {
 								bindContainer(prefix, propertyName, configProperties,
-										propertyValues);
+										keyIndex, propertyValues);
 								return;
 							}
 							if (configProperties.containsKey(propertyName)) {
-								String propertyValue = configProperties
-										.getProperty(propertyName);
+								String propertyValue = getProperty(configProperties,
+										propertyName);
 								propertyValues.add(field.getName(), propertyValue);
 							}
 						}
@@ -343,33 +364,33 @@ public abstract class NacosUtils {
 	}
 
 	/**
-	 * Simple solutions to support {@link Map} or {@link Collection}
+	 * Simple solutions to support {@link Map} or {@link Collection}, only the keys under
+	 * the property name are visited
 	 *
 	 * @param fieldName property name
 	 * @param configProperties config context
+	 * @param keyIndex the {@link PropertyKeyIndex} of config context
 	 * @param propertyValues {@link MutablePropertyValues}
 	 */
 	private static void bindContainer(String prefix, String fieldName,
-			Properties configProperties, MutablePropertyValues propertyValues) {
-		String regx1 = fieldName + "\\[(.*)\\]";
-		String regx2 = fieldName + "\\..*";
-		Pattern pattern1 = Pattern.compile(regx1);
-		Pattern pattern2 = Pattern.compile(regx2);
-		Enumeration<String> enumeration = (Enumeration<String>) configProperties
-				.propertyNames();
-		while (enumeration.hasMoreElements()) {
-			String s = enumeration.nextElement();
+			Map<?, ?> configProperties, PropertyKeyIndex keyIndex,
+			MutablePropertyValues propertyValues) {
+		if (configProperties.containsKey(fieldName)) {
+			// for example: list=1,2,3,4,5 will be into here
+			Properties listProperties = listToProperties(fieldName,
+					getProperty(configProperties, fieldName));
+			bindContainer(prefix, fieldName, listProperties,
+					new PropertyKeyIndex(listProperties), propertyValues);
+			return;
+		}
+		for (String s : keyIndex.getKeys(fieldName)) {
+			String subName = s.substring(fieldName.length());
 			String name = StringUtils.isEmpty(prefix) ? s : s.replace(prefix + ".", "");
-			String value = configProperties.getProperty(s);
-			if (configProperties.containsKey(fieldName)) {
-				// for example: list=1,2,3,4,5 will be into here
-				bindContainer(prefix, fieldName, listToProperties(fieldName,
-						configProperties.getProperty(fieldName)), propertyValues);
-			}
-			else if (pattern1.matcher(s).find()) {
+			String value = getProperty(configProperties, s);
+			if (subName.startsWith("[") && subName.indexOf(']') != -1) {
 				propertyValues.add(name, value);
 			}
-			else if (pattern2.matcher(s).find()) {
+			else if (subName.startsWith(".")) {
 				int index = s.indexOf('.');
 				if (index != -1) {
 					String key = s.substring(index + 1);
@@ -379,6 +400,15 @@ public abstract class NacosUtils {
 		}
 	}
 
+	/**
+	 * Get the property as {@link Properties#getProperty(String)} does, the value which
+	 * isn't a {@link String} is <code>null</code>
+	 */
+	private static String getProperty(Map<?, ?> configProperties, String key) {
+		Object value = configProperties.get(key);
+		return value instanceof String ? (String) value : null;
+	}
+
 	/**
 	 * convert list=1,2,3,4 to list[0]=1, list[1]=2, list[2]=3, list[3]=4
 	 *
@@ -437,11 +467,98 @@ public abstract class NacosUtils {
 	 */
 	public static Properties toProperties(String dataId, String group, String text,
 			String type) {
+		return ConfigParseUtils.toProperties(dataId, group, text, resolveType(type));
+	}
+
+	/**
+	 * Parse the config into the immutable properties without copying them
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param text config context
+	 * @param type config type
+	 * @return {@link ParsedProperties}
+	 * @see ConfigParseUtils#toPropertyMap(String, String, String, String)
+	 */
+	public static ParsedProperties toPropertyMap(String dataId, String group,
+			String text, String type) {
+		return ConfigParseUtils.toPropertyMap(dataId, group, text, resolveType(type));
+	}
+
+	/**
+	 * Parse the documents of the config selected by the profiles of the
+	 * {@link Environment} into the immutable properties without copying them
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param text config context
+	 * @param type config type
+	 * @param environment {@link Environment}
+	 * @return {@link ParsedProperties}
+	 * @see #getActiveProfiles(Environment)
+	 */
+	public static ParsedProperties toPropertyMap(String dataId, String group,
+			String text, String type, Environment environment) {
+		return toPropertyMap(dataId, group, text, type, environment, null);
+	}
+
+	/**
+	 * Parse the config as {@link #toPropertyMap(String, String, String, String, Environment)}
+	 * does, and record the parse
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param text config context
+	 * @param type config type
+	 * @param environment {@link Environment}
+	 * @param recorder the {@link NacosStartupRecorder} of the parse, or
+	 *     <code>null</code> if it's not recorded
+	 * @return {@link ParsedProperties}
+	 * @see ConfigParseUtils#toPropertyMap(String, String, String, String, String[], NacosStartupRecorder)
+	 */
+	public static ParsedProperties toPropertyMap(String dataId, String group,
+			String text, String type, Environment environment,
+			NacosStartupRecorder recorder) {
+		return ConfigParseUtils.toPropertyMap(dataId, group, text, resolveType(type),
+				getActiveProfiles(environment), recorder);
+	}
+
+	/**
+	 * Parse the documents of the config selected by the profiles of the
+	 * {@link Environment} into {@link Properties}
+	 *
+	 * @param dataId config dataId
+	 * @param group config group
+	 * @param text config context
+	 * @param type config type
+	 * @param environment {@link Environment}
+	 * @return {@link Properties}
+	 * @see #getActiveProfiles(Environment)
+	 */
+	public static Properties toProperties(String dataId, String group, String text,
+			String type, Environment environment) {
+		return ConfigParseUtils.toProperties(dataId, group, text, resolveType(type),
+				getActiveProfiles(environment));
+	}
+
+	/**
+	 * Get the profiles selecting the documents of the configs
+	 *
+	 * @param environment {@link Environment}
+	 * @return the active profiles, or the default ones if none is active
+	 */
+	public static String[] getActiveProfiles(Environment environment) {
+		String[] activeProfiles = environment.getActiveProfiles();
+		return activeProfiles.length > 0 ? activeProfiles
+				: environment.getDefaultProfiles();
+	}
+
+	private static String resolveType(String type) {
 		type = type.toLowerCase();
 		if ("yml".equalsIgnoreCase(type)) {
 			type = "yaml";
 		}
-		return ConfigParseUtils.toProperties(dataId, group, text, type);
+		return type;
 	}
 
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The immutable properties parsed from a config, which are shared as they are
+ *
+ * @see ConfigParseUtils#toPropertyMap(String, String, String, String)
+ * @since 0.3.6
+ */
+public final class ParsedProperties extends AbstractMap<String, Object> {
+
+	private final Map<String, Object> properties;
+
+	/**
+	 * The key index of {@link #properties}, built on demand and shared with the
+	 * properties
+	 */
+	private volatile PropertyKeyIndex keyIndex;
+
+	/**
+	 * @param properties the properties, which are not modified anymore
+	 */
+	ParsedProperties(Map<String, Object> properties) {
+		this.properties = Collections.unmodifiableMap(properties);
+	}
+
+	@Override
+	public Object get(Object key) {
+		return properties.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return properties.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return properties.size();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return properties.entrySet();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return properties.keySet();
+	}
+
+	/**
+	 * @return the {@link PropertyKeyIndex} of the properties, built once however many
+	 *     times the properties are bound
+	 */
+	public PropertyKeyIndex getKeyIndex() {
+		PropertyKeyIndex keyIndex = this.keyIndex;
+		if (keyIndex == null) {
+			keyIndex = new PropertyKeyIndex(this);
+			this.keyIndex = keyIndex;
+		}
+		return keyIndex;
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+/**
+ * The {@link StreamingConfigParse} of the configs of several documents, some of which are
+ * for some profiles only, such as a YAML of "spring.profiles" documents. The documents
+ * not selected by the active profiles are skipped instead of overriding the others.
+ *
+ * @see ConfigParseUtils#toPropertyMap(String, String, String, String, String[])
+ * @since 0.3.6
+ */
+public interface ProfileSelectingConfigParse extends StreamingConfigParse {
+
+	/**
+	 * parse the documents of config context selected by the active profiles into the
+	 * sink, {@link #parse(String, Sink)} parses all of them
+	 *
+	 * @param configText receive config context
+	 * @param activeProfiles the active profiles, the default ones if none is active
+	 * @param sink {@link Sink}
+	 */
+	void parse(String configText, String[] activeProfiles, Sink sink);
+
+}
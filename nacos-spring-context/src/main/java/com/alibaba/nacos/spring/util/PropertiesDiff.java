@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.util.ObjectUtils.nullSafeEquals;
+
+/**
+ * The key-level difference between two versions of properties
+ *
+ * @since 0.3.6
+ */
+public class PropertiesDiff {
+
+	private final Set<String> addedKeys;
+
+	private final Set<String> changedKeys;
+
+	private final Set<String> removedKeys;
+
+	private PropertiesDiff(Set<String> addedKeys, Set<String> changedKeys,
+			Set<String> removedKeys) {
+		this.addedKeys = Collections.unmodifiableSet(addedKeys);
+		this.changedKeys = Collections.unmodifiableSet(changedKeys);
+		this.removedKeys = Collections.unmodifiableSet(removedKeys);
+	}
+
+	/**
+	 * Compute the difference from the old properties to the new ones
+	 *
+	 * @param oldProperties the old properties, may be <code>null</code> if there were
+	 *     none
+	 * @param newProperties the new properties
+	 * @return non-null
+	 */
+	public static PropertiesDiff diff(Map<?, ?> oldProperties, Map<?, ?> newProperties) {
+		Set<String> addedKeys = new HashSet<String>();
+		Set<String> changedKeys = new HashSet<String>();
+		Set<String> removedKeys = new HashSet<String>();
+		if (oldProperties == null) {
+			oldProperties = Collections.emptyMap();
+		}
+		if (oldProperties != newProperties) {
+			for (Map.Entry<?, ?> entry : newProperties.entrySet()) {
+				Object key = entry.getKey();
+				Object oldValue = oldProperties.get(key);
+				if (oldValue == null) {
+					addedKeys.add(String.valueOf(key));
+				}
+				else if (!nullSafeEquals(oldValue, entry.getValue())) {
+					changedKeys.add(String.valueOf(key));
+				}
+			}
+			for (Object key : oldProperties.keySet()) {
+				if (!newProperties.containsKey(key)) {
+					removedKeys.add(String.valueOf(key));
+				}
+			}
+		}
+		return new PropertiesDiff(addedKeys, changedKeys, removedKeys);
+	}
+
+	/**
+	 * @return the keys only in the new properties
+	 */
+	public Set<String> getAddedKeys() {
+		return addedKeys;
+	}
+
+	/**
+	 * @return the keys whose value has changed
+	 */
+	public Set<String> getChangedKeys() {
+		return changedKeys;
+	}
+
+	/**
+	 * @return the keys only in the old properties
+	 */
+	public Set<String> getRemovedKeys() {
+		return removedKeys;
+	}
+
+	/**
+	 * @return the added, changed and removed keys
+	 */
+	public Set<String> getKeys() {
+		Set<String> keys = new HashSet<String>(addedKeys);
+		keys.addAll(changedKeys);
+		keys.addAll(removedKeys);
+		return keys;
+	}
+
+	/**
+	 * @return <code>true</code> if nothing has changed
+	 */
+	public boolean isEmpty() {
+		return addedKeys.isEmpty() && changedKeys.isEmpty() && removedKeys.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "PropertiesDiff{addedKeys=" + addedKeys + ", changedKeys=" + changedKeys
+				+ ", removedKeys=" + removedKeys + '}';
+	}
+
+}
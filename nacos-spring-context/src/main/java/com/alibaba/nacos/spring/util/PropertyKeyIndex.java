@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sorted keys of parsed properties, so that the keys under a prefix are found by a
+ * binary search, with the cost proportional to the matching keys instead of all the
+ * keys.
+ *
+ * @since 0.3.6
+ */
+public class PropertyKeyIndex {
+
+	private final Map<?, ?> properties;
+
+	private final String[] keys;
+
+	/**
+	 * @param properties the properties, which must not be changed later
+	 */
+	public PropertyKeyIndex(Map<?, ?> properties) {
+		this.properties = properties;
+		String[] keys = new String[properties.size()];
+		int i = 0;
+		for (Object key : properties.keySet()) {
+			keys[i++] = String.valueOf(key);
+		}
+		Arrays.sort(keys);
+		this.keys = keys;
+	}
+
+	/**
+	 * @return the indexed properties
+	 */
+	public Map<?, ?> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * @param prefix the prefix
+	 * @return the sorted keys starting with the prefix, including the prefix itself
+	 */
+	public List<String> getKeys(String prefix) {
+		int from = lowerBound(prefix);
+		int to = from;
+		while (to < keys.length && keys[to].startsWith(prefix)) {
+			to++;
+		}
+		return Collections.unmodifiableList(Arrays.asList(keys).subList(from, to));
+	}
+
+	/**
+	 * @param prefix the prefix, e.g. "user."
+	 * @return the properties whose keys start with the prefix, keyed by the rest of
+	 *     their keys, e.g. "name" of "user.name", in the order of the keys
+	 */
+	public Map<String, Object> getSubProperties(String prefix) {
+		List<String> keys = getKeys(prefix);
+		Map<String, Object> subProperties = new LinkedHashMap<String, Object>(
+				(int) (keys.size() / 0.75f) + 1);
+		for (String key : keys) {
+			subProperties.put(key.substring(prefix.length()), properties.get(key));
+		}
+		return Collections.unmodifiableMap(subProperties);
+	}
+
+	/**
+	 * @return the index of the first key not less than the prefix
+	 */
+	private int lowerBound(String prefix) {
+		int index = Arrays.binarySearch(keys, prefix);
+		return index < 0 ? -index - 1 : index;
+	}
+
+}
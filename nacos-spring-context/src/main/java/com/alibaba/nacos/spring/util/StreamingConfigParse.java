@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+/**
+ * The {@link ConfigParse} which pushes the properties parsed into a {@link Sink} supplied
+ * by the caller instead of returning a new {@link java.util.Properties}, so that they are
+ * written straight into where they are kept. It's loaded by
+ * {@link java.util.ServiceLoader} as a {@link ConfigParse}, the ones which are not
+ * {@link StreamingConfigParse} are adapted.
+ *
+ * @see AbstractStreamingConfigParse
+ * @see ConfigParseUtils
+ * @since 0.3.6
+ */
+public interface StreamingConfigParse extends ConfigParse {
+
+	/**
+	 * parse config context into the sink
+	 *
+	 * @param configText receive config context
+	 * @param sink {@link Sink}
+	 */
+	void parse(String configText, Sink sink);
+
+	/**
+	 * The receiver of the properties parsed
+	 */
+	interface Sink {
+
+		/**
+		 * Put a property, the one of the same key put before is replaced
+		 *
+		 * @param key the key of property
+		 * @param value the value of property
+		 */
+		void put(String key, Object value);
+	}
+
+}
@@ -23,12 +23,15 @@ import com.alibaba.nacos.api.annotation.NacosProperties;
 import com.alibaba.nacos.api.config.ConfigService;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.spring.factory.NacosServiceFactory;
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
 import com.alibaba.nacos.spring.util.NacosUtils;
 import com.alibaba.nacos.spring.util.PropertiesPlaceholderResolver;
 
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.ConfigurableEnvironment;
 
+import static com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase.CONFIG_LOAD;
+
 /**
  * Nacos Configuration Loader
  *
@@ -45,7 +48,13 @@ public class NacosConfigLoader {
 
 	private NacosServiceFactory nacosServiceFactory;
 
-	private ConfigService configService;
+	private NacosStartupRecorder nacosStartupRecorder;
+
+	/**
+	 * The {@link ConfigService} of the last load. The property sources are loaded in
+	 * parallel, each load keeps its own {@link ConfigService} and only publishes it here.
+	 */
+	private volatile ConfigService configService;
 
 	public NacosConfigLoader(ConfigurableEnvironment environment) {
 		this.environment = environment;
@@ -79,6 +88,7 @@ public class NacosConfigLoader {
 	 */
 	public String load(String dataId, String groupId, Properties nacosProperties)
 			throws RuntimeException {
+		ConfigService configService;
 		try {
 			configService = nacosServiceFactory != null
 					? nacosServiceFactory.createConfigService(nacosProperties)
@@ -89,7 +99,17 @@ public class NacosConfigLoader {
 					+ dataId + " , groupId : " + groupId + " , properties : "
 					+ nacosProperties, e);
 		}
-		return NacosUtils.getContent(configService, dataId, groupId);
+		this.configService = configService;
+		long startTime = NacosStartupRecorder.start();
+		try {
+			return NacosUtils.getContent(configService, dataId, groupId);
+		}
+		finally {
+			if (nacosStartupRecorder != null) {
+				nacosStartupRecorder.record(CONFIG_LOAD,
+						NacosStartupRecorder.configName(dataId, groupId), startTime);
+			}
+		}
 	}
 
 	/**
@@ -114,6 +134,14 @@ public class NacosConfigLoader {
 		this.nacosServiceFactory = nacosServiceFactory;
 	}
 
+	/**
+	 * @param nacosStartupRecorder the {@link NacosStartupRecorder} of the loads, or
+	 *     <code>null</code> if they are not recorded
+	 */
+	public void setNacosStartupRecorder(NacosStartupRecorder nacosStartupRecorder) {
+		this.nacosStartupRecorder = nacosStartupRecorder;
+	}
+
 	public ConfigService getConfigService() {
 		return configService;
 	}
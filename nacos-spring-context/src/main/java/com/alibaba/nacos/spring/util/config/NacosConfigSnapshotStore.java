@@ -0,0 +1,623 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.config;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import static com.alibaba.nacos.api.PropertyKeyConst.ENDPOINT;
+import static com.alibaba.nacos.api.PropertyKeyConst.NAMESPACE;
+import static com.alibaba.nacos.api.PropertyKeyConst.SERVER_ADDR;
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_SNAPSHOT_DIR;
+import static com.alibaba.nacos.spring.util.NacosUtils.SEPARATOR;
+
+/**
+ * The local store of the last known content of each Nacos config, so that the
+ * application can boot without waiting for the server.
+ * <p>
+ * The contents are appended to one log file, each record is checked by CRC32, and an
+ * in-memory index maps each key to its latest record. The file is scanned once when the
+ * store is opened, a torn record at the tail, left by a crash, is truncated. The file is
+ * compacted into the live records once it has grown to twice their size.
+ *
+ * @see com.alibaba.nacos.spring.context.constants.NacosConstants#NACOS_CONFIG_SNAPSHOT_DIR
+ * @since 0.3.6
+ */
+public class NacosConfigSnapshotStore {
+
+	static final String FILE_NAME = "nacos-config.snapshot";
+
+	private static final String LOCK_FILE_NAME = FILE_NAME + ".lock";
+
+	private static final String CHARSET = "UTF-8";
+
+	private static final int MAGIC = 0x4E435353;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8;
+
+	/**
+	 * key length, content length and CRC32 of a record
+	 */
+	private static final int RECORD_HEADER_SIZE = 16;
+
+	private static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+
+	private static final Logger logger = LoggerFactory
+			.getLogger(NacosConfigSnapshotStore.class);
+
+	/**
+	 * The acquired stores by the canonical path of their directory
+	 */
+	private static final Map<String, NacosConfigSnapshotStore> stores = new HashMap<String, NacosConfigSnapshotStore>();
+
+	private final File file;
+
+	private final File lockFile;
+
+	private final long compactionThreshold;
+
+	/**
+	 * The file the records are appended to, the snapshot file unless it couldn't be
+	 * replaced by the compacted one
+	 */
+	private File liveFile;
+
+	private final Map<String, Record> index = new HashMap<String, Record>();
+
+	private RandomAccessFile randomAccessFile;
+
+	private FileChannel channel;
+
+	private RandomAccessFile lockRandomAccessFile;
+
+	private FileLock lock;
+
+	/**
+	 * The size of the header and the latest records
+	 */
+	private long liveSize = HEADER_SIZE;
+
+	private ExecutorService executorService;
+
+	/**
+	 * The times the store is acquired and not released yet, guarded by {@link #stores}
+	 */
+	private int references;
+
+	NacosConfigSnapshotStore(File directory) throws IOException {
+		this(directory, DEFAULT_COMPACTION_THRESHOLD);
+	}
+
+	NacosConfigSnapshotStore(File directory, long compactionThreshold)
+			throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("The directory can't be created : " + directory);
+		}
+		this.file = new File(directory, FILE_NAME);
+		this.lockFile = new File(directory, LOCK_FILE_NAME);
+		this.compactionThreshold = compactionThreshold;
+		this.liveFile = file;
+		lock();
+		try {
+			open(file);
+			load();
+		}
+		catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Acquire the store of the directory configured by
+	 * {@link com.alibaba.nacos.spring.context.constants.NacosConstants#NACOS_CONFIG_SNAPSHOT_DIR},
+	 * which must be {@link #release() released} once it's no longer used
+	 *
+	 * @param environment {@link Environment}
+	 * @return <code>null</code> if it's not configured or the directory can't be used
+	 */
+	public static NacosConfigSnapshotStore acquire(Environment environment) {
+		String directory = environment.getProperty(NACOS_CONFIG_SNAPSHOT_DIR);
+		return StringUtils.hasText(directory) ? acquire(new File(directory.trim()))
+				: null;
+	}
+
+	/**
+	 * Acquire the store of the directory, which is shared in the JVM until it's released
+	 * as many times as it's acquired
+	 *
+	 * @param directory the directory
+	 * @return <code>null</code> if the directory can't be used
+	 */
+	public static NacosConfigSnapshotStore acquire(File directory) {
+		synchronized (stores) {
+			String path = canonicalPath(directory);
+			NacosConfigSnapshotStore store = stores.get(path);
+			if (store == null) {
+				try {
+					store = new NacosConfigSnapshotStore(new File(path));
+				}
+				catch (IOException e) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Nacos config snapshots are disabled, the directory ["
+								+ path + "] can't be used", e);
+					}
+					return null;
+				}
+				stores.put(path, store);
+			}
+			store.references++;
+			return store;
+		}
+	}
+
+	/**
+	 * Get the acquired store of the directory configured by
+	 * {@link com.alibaba.nacos.spring.context.constants.NacosConstants#NACOS_CONFIG_SNAPSHOT_DIR}
+	 *
+	 * @param environment {@link Environment}
+	 * @return <code>null</code> if it's not configured or not acquired
+	 * @see #acquire(Environment)
+	 */
+	public static NacosConfigSnapshotStore getInstance(Environment environment) {
+		String directory = environment.getProperty(NACOS_CONFIG_SNAPSHOT_DIR);
+		if (!StringUtils.hasText(directory)) {
+			return null;
+		}
+		synchronized (stores) {
+			return stores.get(canonicalPath(new File(directory.trim())));
+		}
+	}
+
+	/**
+	 * Release the store acquired, it's closed once it's released as many times as it's
+	 * acquired
+	 *
+	 * @see #acquire(Environment)
+	 */
+	public void release() {
+		synchronized (stores) {
+			if (--references > 0) {
+				return;
+			}
+			String path = file.getParentFile().getPath();
+			if (stores.get(path) == this) {
+				stores.remove(path);
+			}
+			// Closed before it can be acquired again, which needs the lock file
+			close();
+		}
+	}
+
+	private static String canonicalPath(File directory) {
+		try {
+			return directory.getCanonicalPath();
+		}
+		catch (IOException e) {
+			return directory.getAbsolutePath();
+		}
+	}
+
+	/**
+	 * The key of a Nacos config
+	 *
+	 * @param dataId dataId
+	 * @param groupId groupId
+	 * @param nacosProperties the Nacos {@link Properties} of the config
+	 * @return non-null
+	 */
+	public static String key(String dataId, String groupId,
+			Properties nacosProperties) {
+		String serverAddress = nacosProperties.getProperty(SERVER_ADDR);
+		if (!StringUtils.hasText(serverAddress)) {
+			serverAddress = nacosProperties.getProperty(ENDPOINT, "");
+		}
+		return nacosProperties.getProperty(NAMESPACE, "") + SEPARATOR + serverAddress
+				+ SEPARATOR + groupId + SEPARATOR + dataId;
+	}
+
+	/**
+	 * @param key the key of the config
+	 * @return the last known content, or <code>null</code> if absent
+	 * @see #key(String, String, Properties)
+	 */
+	public synchronized String get(String key) {
+		Record record = index.get(key);
+		if (record == null || channel == null) {
+			return null;
+		}
+		try {
+			return new String(readContent(record), CHARSET);
+		}
+		catch (IOException e) {
+			if (logger.isErrorEnabled()) {
+				logger.error("Can't read the snapshot of " + key + " from " + file, e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store the content as the last known one, nothing is written if it's the same as
+	 * the current one
+	 *
+	 * @param key the key of the config
+	 * @param content the content
+	 * @see #key(String, String, Properties)
+	 */
+	public synchronized void put(String key, String content) {
+		if (channel == null) {
+			return;
+		}
+		try {
+			byte[] keyBytes = key.getBytes(CHARSET);
+			byte[] contentBytes = content.getBytes(CHARSET);
+			long crc = crc(keyBytes, contentBytes);
+			Record current = index.get(key);
+			// The CRC32 tells most changes apart cheaply, the bytes are compared when
+			// it matches
+			if (current != null && current.contentLength == contentBytes.length
+					&& current.crc == crc
+					&& Arrays.equals(readContent(current), contentBytes)) {
+				return;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(
+					RECORD_HEADER_SIZE + keyBytes.length + contentBytes.length);
+			buffer.putInt(keyBytes.length).putInt(contentBytes.length).putLong(crc)
+					.put(keyBytes).put(contentBytes);
+			buffer.flip();
+			long position = channel.size();
+			write(channel, buffer, position);
+			channel.force(false);
+			Record record = new Record(position, keyBytes.length, contentBytes.length,
+					crc);
+			index.put(key, record);
+			liveSize += record.size() - (current == null ? 0 : current.size());
+			long size = position + record.size();
+			if (size > compactionThreshold && size > liveSize * 2) {
+				compact();
+			}
+		}
+		catch (IOException e) {
+			if (logger.isErrorEnabled()) {
+				logger.error("Can't write the snapshot of " + key + " into " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Run the task in the background, the tasks of the store are run one by one
+	 *
+	 * @param task the task, e.g. reconciling a config with the server
+	 */
+	public synchronized void execute(Runnable task) {
+		if (channel == null) { // Closed
+			return;
+		}
+		if (executorService == null) {
+			executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "NacosConfigSnapshotReconciler");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		executorService.execute(task);
+	}
+
+	/**
+	 * @return the snapshot file
+	 */
+	File getFile() {
+		return file;
+	}
+
+	synchronized void close() {
+		if (executorService != null) {
+			executorService.shutdownNow();
+			executorService = null;
+		}
+		closeQuietly(randomAccessFile);
+		randomAccessFile = null;
+		channel = null;
+		if (lock != null) {
+			try {
+				lock.release();
+			}
+			catch (IOException ignored) {
+			}
+			lock = null;
+		}
+		closeQuietly(lockRandomAccessFile);
+		lockRandomAccessFile = null;
+	}
+
+	/**
+	 * Hold the lock file, so that no other process writes the same directory
+	 */
+	private void lock() throws IOException {
+		lockRandomAccessFile = new RandomAccessFile(lockFile, "rw");
+		try {
+			lock = lockRandomAccessFile.getChannel().tryLock();
+		}
+		catch (IOException e) {
+			closeQuietly(lockRandomAccessFile);
+			throw e;
+		}
+		catch (OverlappingFileLockException e) {
+			lock = null;
+		}
+		if (lock == null) {
+			closeQuietly(lockRandomAccessFile);
+			throw new IOException("The snapshot is used by another process : " + file);
+		}
+	}
+
+	private void open(File file) throws IOException {
+		randomAccessFile = new RandomAccessFile(file, "rw");
+		channel = randomAccessFile.getChannel();
+	}
+
+	/**
+	 * Scan the records to build the index, and truncate the torn tail if any
+	 */
+	private void load() throws IOException {
+		long length = channel.size();
+		if (length < HEADER_SIZE || !hasValidHeader()) {
+			if (length > 0 && logger.isWarnEnabled()) {
+				logger.warn("The snapshot " + file + " is unrecognized, it's reset");
+			}
+			reset();
+			return;
+		}
+		channel.position(HEADER_SIZE);
+		DataInputStream input = new DataInputStream(
+				new BufferedInputStream(Channels.newInputStream(channel)));
+		long position = HEADER_SIZE;
+		CRC32 crc32 = new CRC32();
+		try {
+			while (position + RECORD_HEADER_SIZE <= length) {
+				int keyLength = input.readInt();
+				int contentLength = input.readInt();
+				long crc = input.readLong();
+				if (keyLength < 0 || contentLength < 0 || position + RECORD_HEADER_SIZE
+						+ keyLength + contentLength > length) {
+					break;
+				}
+				byte[] keyBytes = new byte[keyLength];
+				input.readFully(keyBytes);
+				byte[] contentBytes = new byte[contentLength];
+				input.readFully(contentBytes);
+				crc32.reset();
+				crc32.update(keyBytes);
+				crc32.update(contentBytes);
+				if (crc32.getValue() != crc) {
+					break;
+				}
+				Record record = new Record(position, keyLength, contentLength, crc);
+				Record previous = index.put(new String(keyBytes, CHARSET), record);
+				liveSize += record.size() - (previous == null ? 0 : previous.size());
+				position += record.size();
+			}
+		}
+		catch (EOFException ignored) {
+			// The torn tail
+		}
+		if (position < length) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("The torn tail of the snapshot " + file + " is truncated, "
+						+ (length - position) + " bytes");
+			}
+			channel.truncate(position);
+		}
+		channel.position(0);
+	}
+
+	private boolean hasValidHeader() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+		read(channel, buffer, 0);
+		buffer.flip();
+		return buffer.getInt() == MAGIC && buffer.getInt() == VERSION;
+	}
+
+	private void reset() throws IOException {
+		channel.truncate(0);
+		write(channel, header(), 0);
+		index.clear();
+		liveSize = HEADER_SIZE;
+	}
+
+	/**
+	 * Copy the latest records into a new file, which replaces the current one. The new
+	 * file is never the live one, which may itself be a compacted file that couldn't
+	 * replace the snapshot.
+	 */
+	private void compact() throws IOException {
+		File compactedFile = File.createTempFile(FILE_NAME + ".", ".compacting",
+				file.getParentFile());
+		Map<String, Record> compactedIndex = new HashMap<String, Record>(index.size());
+		RandomAccessFile compacted = new RandomAccessFile(compactedFile, "rw");
+		boolean written = false;
+		try {
+			FileChannel compactedChannel = compacted.getChannel();
+			write(compactedChannel, header(), 0);
+			long position = HEADER_SIZE;
+			for (Map.Entry<String, Record> entry : index.entrySet()) {
+				Record record = entry.getValue();
+				ByteBuffer buffer = ByteBuffer.allocate((int) record.size());
+				read(channel, buffer, record.position);
+				buffer.flip();
+				write(compactedChannel, buffer, position);
+				compactedIndex.put(entry.getKey(), new Record(position,
+						record.keyLength, record.contentLength, record.crc));
+				position += record.size();
+			}
+			compactedChannel.force(true);
+			written = true;
+		}
+		finally {
+			closeQuietly(compacted);
+			if (!written) {
+				compactedFile.delete();
+			}
+		}
+		closeQuietly(randomAccessFile);
+		if (compactedFile.renameTo(file)) {
+			useCompacted(file, compactedIndex);
+			return;
+		}
+		// The target can't be replaced on some platforms, it's moved aside until the
+		// compacted one is in place
+		File replacedFile = new File(file.getParentFile(), FILE_NAME + ".replaced");
+		replacedFile.delete();
+		if (file.renameTo(replacedFile)) {
+			if (compactedFile.renameTo(file)) {
+				replacedFile.delete();
+				useCompacted(file, compactedIndex);
+				return;
+			}
+			if (!replacedFile.renameTo(file)) {
+				// Neither is in place, go on with the compacted one which holds the
+				// latest records
+				useCompacted(compactedFile, compactedIndex);
+				throw new IOException("The snapshot " + file
+						+ " can't be replaced when compacted, " + compactedFile
+						+ " is used instead");
+			}
+		}
+		// The live one is kept as is
+		open(liveFile);
+		compactedFile.delete();
+		throw new IOException(
+				"The snapshot " + file + " can't be replaced when compacted");
+	}
+
+	private void useCompacted(File compactedFile, Map<String, Record> compactedIndex)
+			throws IOException {
+		if (!liveFile.equals(file)) {
+			// A compacted file used in place of the snapshot is superseded
+			liveFile.delete();
+		}
+		liveFile = compactedFile;
+		open(compactedFile);
+		// The renamed file is reopened, flush its metadata again
+		channel.force(true);
+		index.clear();
+		index.putAll(compactedIndex);
+	}
+
+	private byte[] readContent(Record record) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(record.contentLength);
+		read(channel, buffer, record.position + RECORD_HEADER_SIZE + record.keyLength);
+		return buffer.array();
+	}
+
+	private static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION);
+		header.flip();
+		return header;
+	}
+
+	private static long crc(byte[] keyBytes, byte[] contentBytes) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(keyBytes);
+		crc32.update(contentBytes);
+		return crc32.getValue();
+	}
+
+	private static void read(FileChannel channel, ByteBuffer buffer, long position)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			position += read;
+		}
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer, long position)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	private static void closeQuietly(RandomAccessFile randomAccessFile) {
+		if (randomAccessFile != null) {
+			try {
+				randomAccessFile.close();
+			}
+			catch (IOException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * The location of the latest record of a key
+	 */
+	private static class Record {
+
+		private final long position;
+
+		private final int keyLength;
+
+		private final int contentLength;
+
+		private final long crc;
+
+		Record(long position, int keyLength, int contentLength, long crc) {
+			this.position = position;
+			this.keyLength = keyLength;
+			this.contentLength = contentLength;
+			this.crc = crc;
+		}
+
+		long size() {
+			return RECORD_HEADER_SIZE + keyLength + contentLength;
+		}
+	}
+
+}
@@ -25,4 +25,8 @@ class ConfigParseException extends RuntimeException {
 	ConfigParseException(Throwable cause) {
 		super(cause);
 	}
+
+	ConfigParseException(String message) {
+		super(message);
+	}
 }
@@ -16,30 +16,18 @@
  */
 package com.alibaba.nacos.spring.util.parse;
 
-import java.util.Map;
-import java.util.Properties;
-
 import com.alibaba.nacos.api.config.ConfigType;
-import com.alibaba.nacos.spring.util.AbstractConfigParse;
-
-import static com.alibaba.nacos.spring.util.parse.DefaultYamlConfigParse.createYaml;
+import com.alibaba.nacos.spring.util.AbstractStreamingConfigParse;
 
 /**
  * @author <a href="mailto:liaochunyhm@live.com">liaochuntao</a>
  * @since 0.3.0
  */
-public class DefaultJsonConfigParse extends AbstractConfigParse {
+public class DefaultJsonConfigParse extends AbstractStreamingConfigParse {
 
 	@Override
-	public Properties parse(String configText) {
-		final Properties result = new Properties();
-		DefaultYamlConfigParse.process(new DefaultYamlConfigParse.MatchCallback() {
-			@Override
-			public void process(Properties properties, Map<String, Object> map) {
-				result.putAll(properties);
-			}
-		}, createYaml(), configText);
-		return result;
+	public void parse(String configText, Sink sink) {
+		new JsonFlattener(sink).flatten(configText);
 	}
 
 	@Override
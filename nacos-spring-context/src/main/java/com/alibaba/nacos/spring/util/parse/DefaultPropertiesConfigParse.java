@@ -16,12 +16,8 @@
  */
 package com.alibaba.nacos.spring.util.parse;
 
-import java.io.IOException;
-import java.io.StringReader;
-import java.util.Properties;
-
 import com.alibaba.nacos.api.config.ConfigType;
-import com.alibaba.nacos.spring.util.AbstractConfigParse;
+import com.alibaba.nacos.spring.util.AbstractStreamingConfigParse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,23 +27,16 @@ import org.springframework.util.StringUtils;
  * @author <a href="mailto:liaochunyhm@live.com">liaochuntao</a>
  * @since 0.3.0
  */
-public class DefaultPropertiesConfigParse extends AbstractConfigParse {
+public class DefaultPropertiesConfigParse extends AbstractStreamingConfigParse {
 
 	private static final Logger logger = LoggerFactory
 			.getLogger(DefaultPropertiesConfigParse.class);
 
 	@Override
-	public Properties parse(String configText) {
-		Properties properties = new Properties();
-		try {
-			if (StringUtils.hasText(configText)) {
-				properties.load(new StringReader(configText));
-			}
-		}
-		catch (IOException e) {
-			throw new ConfigParseException(e);
+	public void parse(String configText, Sink sink) {
+		if (StringUtils.hasText(configText)) {
+			new PropertiesScanner(sink).scan(configText);
 		}
-		return properties;
 	}
 
 	@Override
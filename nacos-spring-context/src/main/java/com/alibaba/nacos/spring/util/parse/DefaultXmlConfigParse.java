@@ -16,23 +16,9 @@
  */
 package com.alibaba.nacos.spring.util.parse;
 
-import java.io.ByteArrayInputStream;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Properties;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-
 import com.alibaba.nacos.api.config.ConfigType;
-import com.alibaba.nacos.spring.util.AbstractConfigParse;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import org.springframework.util.StringUtils;
+import com.alibaba.nacos.spring.util.AbstractStreamingConfigParse;
+import com.alibaba.nacos.spring.util.ConfigParseLimitException;
 
 /*
 <xmlSign>
@@ -74,84 +60,19 @@ import org.springframework.util.StringUtils;
  * @author <a href="mailto:liaochunyhm@live.com">liaochuntao</a>
  * @since 0.3.0
  */
-public class DefaultXmlConfigParse extends AbstractConfigParse {
-
-	private DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+public class DefaultXmlConfigParse extends AbstractStreamingConfigParse {
 
 	@Override
-	public Properties parse(String configText) {
-		Properties properties = new Properties();
+	public void parse(String configText, Sink sink) {
 		try {
-			Document document = factory.newDocumentBuilder()
-					.parse(new ByteArrayInputStream(configText.getBytes("UTF-8")));
-			Element root = document.getDocumentElement();
-			Map<String, Object> map = new LinkedHashMap<String, Object>(8);
-			recursionXmlToMap(map, root);
-			mapToProperties("", properties, map);
+			new XmlStreamFlattener(sink).flatten(configText);
+		}
+		catch (ConfigParseLimitException e) {
+			throw e;
 		}
 		catch (Exception e) {
 			throw new ConfigParseException(e);
 		}
-		return properties;
-	}
-
-	private void recursionXmlToMap(Map<String, Object> outMap, Element element) {
-		NodeList nodeList = element.getChildNodes();
-		String name = element.getNodeName();
-		if (nodeList.getLength() == 1 && !nodeList.item(0).hasChildNodes()) {
-			addData(outMap, name, element.getTextContent());
-		}
-		else {
-			Map<String, Object> innerMap = new LinkedHashMap<String, Object>(1);
-			int length = nodeList.getLength();
-			for (int i = 0; i < length; i++) {
-				Node node = nodeList.item(i);
-				if (node.getNodeType() == Node.ELEMENT_NODE) {
-					Element tElement = (Element) node;
-					recursionXmlToMap(innerMap, tElement);
-				}
-			}
-			addData(outMap, name, innerMap);
-		}
-	}
-
-	private void addData(Map<String, Object> map, String key, Object data) {
-		if (map.containsKey(key)) {
-			if (map.get(key) instanceof List) {
-				((List) map.get(key)).add(data);
-			}
-			else {
-				List<Object> list = new LinkedList<Object>();
-				list.add(map.get(key));
-				map.put(key, list);
-			}
-		}
-		else {
-			map.put(key, data);
-		}
-	}
-
-	private void mapToProperties(String prefixName, Properties properties, Object data) {
-		if (data instanceof List) {
-			List list = (List) data;
-			for (int i = 0; i < list.size(); i++) {
-				int lastIndex = prefixName.lastIndexOf('.');
-				String preName = prefixName.substring(0, lastIndex);
-				String lastName = prefixName.substring(lastIndex);
-				mapToProperties(preName + "[" + i + "]", properties, list.get(i));
-			}
-		}
-		else if (data instanceof Map) {
-			Map<String, Object> map = (Map<String, Object>) data;
-			for (Map.Entry<String, Object> entry : map.entrySet()) {
-				String tmpPrefix = StringUtils.isEmpty(prefixName) ? entry.getKey()
-						: prefixName + "." + entry.getKey();
-				mapToProperties(tmpPrefix, properties, entry.getValue());
-			}
-		}
-		else {
-			properties.setProperty(prefixName, String.valueOf(data));
-		}
 	}
 
 	@Override
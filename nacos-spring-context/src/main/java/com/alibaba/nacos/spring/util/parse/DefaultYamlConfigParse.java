@@ -18,41 +18,78 @@ package com.alibaba.nacos.spring.util.parse;
 
 import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import com.alibaba.nacos.api.config.ConfigType;
-import com.alibaba.nacos.spring.util.AbstractConfigParse;
+import com.alibaba.nacos.spring.util.AbstractStreamingConfigParse;
+import com.alibaba.nacos.spring.util.ProfileSelectingConfigParse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.parser.ParserException;
+import org.yaml.snakeyaml.representer.Representer;
 
 /**
+ * The documents of "spring.profiles" not selected by the active profiles are skipped
+ * from the events, without being constructed.
+ *
  * @author <a href="mailto:liaochunyhm@live.com">liaochuntao</a>
  * @since 0.3.0
  */
-public class DefaultYamlConfigParse extends AbstractConfigParse {
+public class DefaultYamlConfigParse extends AbstractStreamingConfigParse
+		implements ProfileSelectingConfigParse {
 
 	protected static final Logger logger = LoggerFactory
 			.getLogger(DefaultYamlConfigParse.class);
 
+	/**
+	 * Building a {@link Yaml} is costly, but its constructor is stateful while loading,
+	 * so it's reused per thread
+	 */
+	private static final ThreadLocal<Yaml> yamls = new ThreadLocal<Yaml>() {
+		@Override
+		protected Yaml initialValue() {
+			return createYaml();
+		}
+	};
+
 	protected static Yaml createYaml() {
-		return new Yaml(new MapAppenderConstructor());
+		// Otherwise the duplicate keys are removed before the mapping is constructed
+		LoaderOptions loaderOptions = new LoaderOptions();
+		loaderOptions.setAllowDuplicateKeys(false);
+		return new Yaml(new MapAppenderConstructor(), new Representer(),
+				new DumperOptions(), loaderOptions);
 	}
 
 	protected static boolean process(MatchCallback callback, Yaml yaml, String content) {
+		return process(callback, yaml, content, null);
+	}
+
+	private static boolean process(MatchCallback callback, Yaml yaml, String content,
+			String[] activeProfiles) {
 		int count = 0;
 		if (logger.isDebugEnabled()) {
 			logger.debug("Loading from YAML: " + content);
 		}
 		for (Object object : yaml.loadAll(content)) {
-			if (object != null && process(asMap(object), callback)) {
+			if (object == null) {
+				continue;
+			}
+			Map<String, Object> map = asMap(object);
+			if (activeProfiles != null && !acceptsProfiles(activeProfiles, map)) {
+				continue;
+			}
+			if (process(map, callback)) {
 				count++;
 			}
 		}
@@ -101,6 +138,17 @@ public class DefaultYamlConfigParse extends AbstractConfigParse {
 		return result;
 	}
 
+	private static boolean acceptsProfiles(String[] activeProfiles,
+			Map<String, Object> map) {
+		List<String> profiles = new ArrayList<String>();
+		for (Map.Entry<String, Object> entry : getFlattenedMap(map).entrySet()) {
+			if (YamlEventFlattener.isProfilesKey(entry.getKey())) {
+				profiles.add(String.valueOf(entry.getValue()));
+			}
+		}
+		return YamlEventFlattener.acceptsProfiles(activeProfiles, profiles);
+	}
+
 	protected static Map<String, Object> getFlattenedMap(Map<String, Object> source) {
 		Map<String, Object> result = new LinkedHashMap<String, Object>();
 		buildFlattenedMap(result, source, null);
@@ -146,15 +194,52 @@ public class DefaultYamlConfigParse extends AbstractConfigParse {
 	}
 
 	@Override
-	public Properties parse(String configText) {
-		final Properties result = new Properties();
-		process(new MatchCallback() {
-			@Override
-			public void process(Properties properties, Map<String, Object> map) {
-				result.putAll(properties);
-			}
-		}, createYaml(), configText);
-		return result;
+	public void parse(String configText, Sink sink) {
+		parse(configText, null, sink);
+	}
+
+	@Override
+	public void parse(String configText, String[] activeProfiles, final Sink sink) {
+		// Nothing reaches the sink until the events are flattened, the fallback may
+		// construct other properties than those flattened so far
+		final Map<String, Object> flattened = new LinkedHashMap<String, Object>();
+		try {
+			int count = new YamlEventFlattener(new Sink() {
+				@Override
+				public void put(String key, Object value) {
+					flattened.put(key, value);
+				}
+			}, activeProfiles).flatten(yamls.get(), configText);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Flattened " + count + " document" + (count > 1 ? "s" : "")
+						+ " from YAML events: " + configText);
+			}
+			for (Map.Entry<String, Object> entry : flattened.entrySet()) {
+				sink.put(entry.getKey(), entry.getValue());
+			}
+			return;
+		}
+		catch (YamlEventFlattener.UnsupportedYamlException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Constructing the YAML documents, " + ex.getMessage());
+			}
+		}
+		try {
+			new YamlLimitChecker().check(yamls.get(), configText);
+			process(new MatchCallback() {
+				@Override
+				public void process(Properties properties, Map<String, Object> map) {
+					for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+						sink.put((String) entry.getKey(), entry.getValue());
+					}
+				}
+			}, yamls.get(), configText, activeProfiles);
+		}
+		catch (RuntimeException ex) {
+			// The constructor may be left with the state of the failed document
+			yamls.remove();
+			throw ex;
+		}
 	}
 
 	@Override
@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.alibaba.nacos.spring.util.ConfigParseLimits;
+import com.alibaba.nacos.spring.util.StreamingConfigParse.Sink;
+
+import static com.alibaba.nacos.client.utils.StringUtils.isBlank;
+
+/**
+ * Flattens JSON into the output in a single pass over the text, with the same keys as
+ * the YAML flattening, such as "a.b[0].c". The strings and the literals of numbers are
+ * kept as they are, <code>null</code> is flattened to an empty value and the empty
+ * objects and arrays are not flattened.
+ *
+ * @see DefaultJsonConfigParse
+ * @since 0.3.6
+ */
+class JsonFlattener {
+
+	/**
+	 * The key of a document which is not an object
+	 */
+	private static final String DOCUMENT_KEY = "document";
+
+	private final Sink output;
+
+	private String content;
+
+	private int position;
+
+	/**
+	 * The number of the open objects and arrays
+	 */
+	private int depth;
+
+	/**
+	 * @param output the output of the flattened properties
+	 */
+	JsonFlattener(Sink output) {
+		this.output = output;
+	}
+
+	/**
+	 * Flatten the JSON content
+	 *
+	 * @param content the JSON content, may be blank
+	 * @throws ConfigParseException if the content isn't valid JSON
+	 * @throws com.alibaba.nacos.spring.util.ConfigParseLimitException if it's nested
+	 *     too deep
+	 */
+	void flatten(String content) {
+		this.content = content;
+		this.position = 0;
+		this.depth = 0;
+		if (content.length() > 0 && content.charAt(0) == '\uFEFF') {
+			position++;
+		}
+		skipWhitespace();
+		if (position == content.length()) {
+			return;
+		}
+		char c = content.charAt(position);
+		if (c == '{') {
+			object(null);
+		}
+		else if (c == 'n') {
+			// A null document is not flattened
+			literal("null");
+		}
+		else {
+			value(DOCUMENT_KEY);
+		}
+		skipWhitespace();
+		if (position < content.length()) {
+			throw error("Unexpected '" + content.charAt(position) + "'");
+		}
+	}
+
+	private void value(String path) {
+		if (position == content.length()) {
+			throw error("Unexpected end");
+		}
+		char c = content.charAt(position);
+		switch (c) {
+		case '{':
+			object(path);
+			break;
+		case '[':
+			array(path);
+			break;
+		case '"':
+			output.put(path, string());
+			break;
+		case 't':
+			output.put(path, literal("true"));
+			break;
+		case 'f':
+			output.put(path, literal("false"));
+			break;
+		case 'n':
+			literal("null");
+			output.put(path, "");
+			break;
+		default:
+			output.put(path, number());
+		}
+	}
+
+	private void object(String path) {
+		position++;
+		ConfigParseLimits.checkDepth(++depth);
+		skipWhitespace();
+		if (consume('}')) {
+			depth--;
+			return;
+		}
+		Set<String> keys = new HashSet<String>();
+		do {
+			skipWhitespace();
+			if (position == content.length() || content.charAt(position) != '"') {
+				throw error("Expected a key");
+			}
+			int start = position;
+			String key = string();
+			if (!keys.add(key)) {
+				position = start;
+				throw error("Duplicate key: " + key);
+			}
+			skipWhitespace();
+			if (!consume(':')) {
+				throw error("Expected ':'");
+			}
+			skipWhitespace();
+			value(childPath(path, key));
+			skipWhitespace();
+		}
+		while (consume(','));
+		if (!consume('}')) {
+			throw error("Expected ',' or '}'");
+		}
+		depth--;
+	}
+
+	private void array(String path) {
+		position++;
+		ConfigParseLimits.checkDepth(++depth);
+		skipWhitespace();
+		if (consume(']')) {
+			depth--;
+			return;
+		}
+		int index = 0;
+		do {
+			skipWhitespace();
+			value(path + "[" + index++ + "]");
+			skipWhitespace();
+		}
+		while (consume(','));
+		if (!consume(']')) {
+			throw error("Expected ',' or ']'");
+		}
+		depth--;
+	}
+
+	private String string() {
+		position++;
+		int start = position;
+		StringBuilder builder = null;
+		while (position < content.length()) {
+			char c = content.charAt(position);
+			if (c == '"') {
+				String value = builder == null ? content.substring(start, position)
+						: builder.append(content, start, position).toString();
+				position++;
+				return value;
+			}
+			if (c == '\\') {
+				if (builder == null) {
+					builder = new StringBuilder();
+				}
+				builder.append(content, start, position);
+				builder.append(escape());
+				start = position;
+			}
+			else if (c < ' ') {
+				throw error("Unescaped control character in a string");
+			}
+			else {
+				position++;
+			}
+		}
+		throw error("Unterminated string");
+	}
+
+	private char escape() {
+		position++;
+		if (position == content.length()) {
+			throw error("Unterminated string");
+		}
+		char c = content.charAt(position++);
+		switch (c) {
+		case '"':
+		case '\\':
+		case '/':
+			return c;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			if (position + 4 <= content.length()) {
+				int unicode = 0;
+				for (int i = 0; i < 4 && unicode >= 0; i++) {
+					int digit = hexDigit(content.charAt(position + i));
+					unicode = digit < 0 ? -1 : (unicode << 4) + digit;
+				}
+				if (unicode >= 0) {
+					position += 4;
+					return (char) unicode;
+				}
+			}
+			position--;
+			throw error("Invalid unicode escape");
+		default:
+			position--;
+			throw error("Invalid escape '\\" + c + "'");
+		}
+	}
+
+	private String number() {
+		int start = position;
+		consume('-');
+		if (!consume('0') && digits() == 0) {
+			throw error("Unexpected '"
+					+ (position < content.length() ? content.charAt(position) : ' ')
+					+ "'");
+		}
+		if (consume('.') && digits() == 0) {
+			throw error("Expected a digit");
+		}
+		if (consume('e') || consume('E')) {
+			if (!consume('+')) {
+				consume('-');
+			}
+			if (digits() == 0) {
+				throw error("Expected a digit");
+			}
+		}
+		return content.substring(start, position);
+	}
+
+	private int digits() {
+		int start = position;
+		while (position < content.length() && content.charAt(position) >= '0'
+				&& content.charAt(position) <= '9') {
+			position++;
+		}
+		return position - start;
+	}
+
+	private String literal(String literal) {
+		if (!content.startsWith(literal, position)) {
+			throw error("Unexpected '" + content.charAt(position) + "'");
+		}
+		position += literal.length();
+		return literal;
+	}
+
+	private boolean consume(char c) {
+		if (position < content.length() && content.charAt(position) == c) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void skipWhitespace() {
+		while (position < content.length()) {
+			char c = content.charAt(position);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return;
+			}
+			position++;
+		}
+	}
+
+	private ConfigParseException error(String message) {
+		int line = 1;
+		int column = 1;
+		for (int i = 0; i < position && i < content.length(); i++) {
+			if (content.charAt(i) == '\n') {
+				line++;
+				column = 1;
+			}
+			else {
+				column++;
+			}
+		}
+		return new ConfigParseException(
+				message + " at line " + line + ", column " + column);
+	}
+
+	/**
+	 * @return the value of the hex digit, or -1 if it's not one, unlike
+	 *     {@link Integer#parseInt(String, int)} the sign isn't accepted
+	 */
+	private static int hexDigit(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		return -1;
+	}
+
+	private static String childPath(String path, String key) {
+		if (isBlank(path)) {
+			return key;
+		}
+		return key.startsWith("[") ? path + key : path + '.' + key;
+	}
+
+}
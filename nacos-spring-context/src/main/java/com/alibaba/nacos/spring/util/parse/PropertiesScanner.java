@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import com.alibaba.nacos.spring.util.StreamingConfigParse.Sink;
+
+/**
+ * Scans the properties text in a single pass over its chars, with the same lines,
+ * comments, continuations, separators and escapes as
+ * {@link java.util.Properties#load(java.io.Reader)}, pushing the properties into the
+ * output instead of a synchronized {@link java.util.Properties}.
+ *
+ * @see DefaultPropertiesConfigParse
+ * @since 0.3.6
+ */
+class PropertiesScanner {
+
+	private final Sink output;
+
+	private String content;
+
+	private int position;
+
+	/**
+	 * The chars of the current logical line, the continuations joined
+	 */
+	private char[] line = new char[256];
+
+	private StringBuilder buffer;
+
+	/**
+	 * @param output the output of the properties
+	 */
+	PropertiesScanner(Sink output) {
+		this.output = output;
+	}
+
+	/**
+	 * Scan the properties text
+	 *
+	 * @param content the properties text
+	 * @throws IllegalArgumentException if a "\\uxxxx" escape is malformed
+	 */
+	void scan(String content) {
+		this.content = content;
+		this.position = 0;
+		int length;
+		while ((length = readLine()) >= 0) {
+			int keyLength = 0;
+			int valueStart = length;
+			boolean hasSeparator = false;
+			boolean precedingBackslash = false;
+			while (keyLength < length) {
+				char c = line[keyLength];
+				if ((c == '=' || c == ':') && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					hasSeparator = true;
+					break;
+				}
+				else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					break;
+				}
+				precedingBackslash = c == '\\' ? !precedingBackslash : false;
+				keyLength++;
+			}
+			while (valueStart < length) {
+				char c = line[valueStart];
+				if (c != ' ' && c != '\t' && c != '\f') {
+					if (!hasSeparator && (c == '=' || c == ':')) {
+						hasSeparator = true;
+					}
+					else {
+						break;
+					}
+				}
+				valueStart++;
+			}
+			output.put(unescape(0, keyLength),
+					unescape(valueStart, length - valueStart));
+		}
+	}
+
+	/**
+	 * Read the next logical line into {@link #line}, skipping the blank lines, the
+	 * comments and the leading whitespaces
+	 *
+	 * @return the length of the line, <code>-1</code> if the content ends
+	 */
+	private int readLine() {
+		int length = 0;
+		boolean skipWhitespace = true;
+		boolean appendedLineBegin = false;
+		boolean precedingBackslash = false;
+		while (true) {
+			if (position >= content.length()) {
+				if (length == 0) {
+					return -1;
+				}
+				return precedingBackslash ? length - 1 : length;
+			}
+			char c = content.charAt(position++);
+			if (skipWhitespace) {
+				if (c == ' ' || c == '\t' || c == '\f') {
+					continue;
+				}
+				if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+					continue;
+				}
+				skipWhitespace = false;
+				appendedLineBegin = false;
+			}
+			if (length == 0 && (c == '#' || c == '!')) {
+				// Still on a new logical line, the comment is skipped to its end
+				while (true) {
+					if (position >= content.length()) {
+						return -1;
+					}
+					c = content.charAt(position++);
+					if (c == '\r' || c == '\n') {
+						break;
+					}
+				}
+				skipWhitespace = true;
+				continue;
+			}
+			if (c != '\n' && c != '\r') {
+				if (length == line.length) {
+					char[] newLine = new char[length * 2];
+					System.arraycopy(line, 0, newLine, 0, length);
+					line = newLine;
+				}
+				line[length++] = c;
+				precedingBackslash = c == '\\' ? !precedingBackslash : false;
+			}
+			else {
+				if (length == 0) {
+					skipWhitespace = true;
+					continue;
+				}
+				if (position >= content.length() || !precedingBackslash) {
+					return precedingBackslash ? length - 1 : length;
+				}
+				// The backslash at the end of line is not a part of the line
+				length--;
+				skipWhitespace = true;
+				appendedLineBegin = true;
+				precedingBackslash = false;
+				if (c == '\r' && content.charAt(position) == '\n') {
+					position++;
+				}
+			}
+		}
+	}
+
+	private String unescape(int offset, int length) {
+		int end = offset + length;
+		int start = offset;
+		while (offset < end && line[offset] != '\\') {
+			offset++;
+		}
+		if (offset == end) {
+			return new String(line, start, length);
+		}
+		if (buffer == null) {
+			buffer = new StringBuilder();
+		}
+		buffer.setLength(0);
+		buffer.append(line, start, offset - start);
+		while (offset < end) {
+			char c = line[offset++];
+			if (c != '\\') {
+				buffer.append(c);
+				continue;
+			}
+			// A backslash is never the last char, since it would be a continuation
+			c = line[offset++];
+			if (c == 'u') {
+				if (offset > end - 4) {
+					throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+				}
+				int value = 0;
+				for (int i = 0; i < 4; i++) {
+					value = (value << 4) + hexDigit(line[offset++]);
+				}
+				buffer.append((char) value);
+			}
+			else if (c == 't') {
+				buffer.append('\t');
+			}
+			else if (c == 'r') {
+				buffer.append('\r');
+			}
+			else if (c == 'n') {
+				buffer.append('\n');
+			}
+			else if (c == 'f') {
+				buffer.append('\f');
+			}
+			else {
+				buffer.append(c);
+			}
+		}
+		return buffer.toString();
+	}
+
+	private static int hexDigit(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+	}
+
+}
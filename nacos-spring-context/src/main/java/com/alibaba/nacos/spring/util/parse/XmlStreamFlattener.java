@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.nacos.spring.util.ConfigParseLimitException;
+import com.alibaba.nacos.spring.util.ConfigParseLimits;
+import com.alibaba.nacos.spring.util.StreamingConfigParse.Sink;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Flattens XML into the output with a StAX cursor, emitting the keys of each element
+ * as it ends, with the same keys as the former DOM based parsing. They are pushed into
+ * the output once the document ends, since some of them may be renamed:
+ * <ul>
+ * <li>the key of an element is the path of the element names from the root element,
+ * joined with '.'</li>
+ * <li>an element with a single child node that has no children is a value, its text
+ * content</li>
+ * <li>the repeated elements of a parent are indexed instead of named, the last name of
+ * their path is replaced with "[i]", and the keys already emitted for the first one are
+ * renamed once the second one starts</li>
+ * <li>the second one of the repeated elements is skipped, the third one is "[1]", as the
+ * DOM based parsing did</li>
+ * </ul>
+ *
+ * @see DefaultXmlConfigParse
+ * @since 0.3.6
+ */
+class XmlStreamFlattener {
+
+	private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+	private static final String ENTITY_EXPANSION_LIMIT = "http://www.oracle.com/xml/jaxp/properties/entityExpansionLimit";
+
+	/**
+	 * The code of the error of the JDK parser once the entity expansion limit is
+	 * exceeded
+	 */
+	private static final String ENTITY_EXPANSION_LIMIT_ERROR = "JAXP00010001";
+
+	/**
+	 * {@link XMLInputFactory} isn't guaranteed to be thread-safe, it's reused per thread
+	 */
+	private static final ThreadLocal<XMLInputFactory> factories = new ThreadLocal<XMLInputFactory>() {
+		@Override
+		protected XMLInputFactory initialValue() {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			// The element names are kept as written, like DOM does by default
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+					false);
+			if (factory.isPropertySupported(REPORT_CDATA_EVENT)) {
+				factory.setProperty(REPORT_CDATA_EVENT, true);
+			}
+			// The internal entities are still expanded, as many as the limit
+			if (factory.isPropertySupported(ENTITY_EXPANSION_LIMIT)) {
+				factory.setProperty(ENTITY_EXPANSION_LIMIT,
+						String.valueOf(ConfigParseLimits.getMaxExpansions()));
+			}
+			return factory;
+		}
+	};
+
+	private final Sink output;
+
+	/**
+	 * The keys emitted in order, the ones of an element are a range of it
+	 */
+	private final List<String> keys = new ArrayList<String>();
+
+	private final List<String> values = new ArrayList<String>();
+
+	private final List<Frame> stack = new ArrayList<Frame>();
+
+	/**
+	 * The number of the open elements which are skipped
+	 */
+	private int skipping;
+
+	/**
+	 * @param output the output of the flattened properties
+	 */
+	XmlStreamFlattener(Sink output) {
+		this.output = output;
+	}
+
+	/**
+	 * Flatten the XML content
+	 *
+	 * @param content the XML content
+	 * @throws XMLStreamException if the content isn't well-formed XML
+	 * @throws ConfigParseLimitException if it's nested too deep, has too many
+	 *     elements or expands too many entities
+	 */
+	void flatten(String content) throws XMLStreamException {
+		XMLStreamReader reader = factories.get()
+				.createXMLStreamReader(new StringReader(content));
+		try {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					startElement(name(reader));
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					endElement();
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					text(reader.getText(), true);
+					break;
+				case XMLStreamConstants.CDATA:
+					text(reader.getText(), false);
+					break;
+				case XMLStreamConstants.COMMENT:
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					text(null, false);
+					break;
+				default:
+				}
+			}
+		}
+		catch (XMLStreamException ex) {
+			String message = ex.getMessage();
+			if (message != null && message.contains(ENTITY_EXPANSION_LIMIT_ERROR)) {
+				throw new ConfigParseLimitException(
+						ConfigParseLimits.MAX_EXPANSIONS_PROPERTY,
+						ConfigParseLimits.getMaxExpansions(),
+						"The number of the entities expanded");
+			}
+			throw ex;
+		}
+		finally {
+			reader.close();
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			output.put(keys.get(i), values.get(i));
+		}
+	}
+
+	private void startElement(String name) {
+		Frame parent = top();
+		String path;
+		boolean skipped = false;
+		if (parent == null) {
+			path = name;
+		}
+		else {
+			parent.childNode(false);
+			path = parent.path + "." + name;
+			Occurrences occurrences = parent.occurrences.get(name);
+			if (occurrences == null) {
+				occurrences = new Occurrences(path, keys.size());
+				parent.occurrences.put(name, occurrences);
+			}
+			else {
+				String prefix = path.substring(0, path.lastIndexOf('.'));
+				if (occurrences.count == 1) {
+					rename(occurrences, prefix + "[0]");
+					skipped = true;
+				}
+				path = prefix + "[" + (occurrences.count - 1) + "]";
+				occurrences.count++;
+			}
+		}
+		if (skipped) {
+			skipping++;
+		}
+		stack.add(new Frame(name, path, skipped));
+		ConfigParseLimits.checkDepth(stack.size());
+	}
+
+	private void endElement() {
+		Frame frame = stack.remove(stack.size() - 1);
+		if (frame.childNodes == 1 && !frame.childHasChildren) {
+			emit(frame.path, frame.text != null ? frame.text.toString() : "");
+		}
+		if (frame.skipped) {
+			skipping--;
+		}
+		Frame parent = top();
+		if (parent != null) {
+			parent.childHasChildren = frame.childNodes > 0;
+			Occurrences occurrences = parent.occurrences.get(frame.name);
+			if (occurrences.count == 1) {
+				occurrences.end = keys.size();
+			}
+		}
+	}
+
+	/**
+	 * @param text the text, <code>null</code> if the node is not a text
+	 * @param mergeable whether the text is merged with the text before, as DOM does,
+	 *     a CDATA section is a node of its own
+	 */
+	private void text(String text, boolean mergeable) {
+		Frame frame = top();
+		if (frame == null) {
+			return;
+		}
+		if (mergeable && frame.mergeableText) {
+			if (frame.text != null) {
+				frame.text.append(text);
+			}
+			return;
+		}
+		frame.childNode(mergeable);
+		if (frame.childNodes == 1 && text != null) {
+			frame.text = new StringBuilder(text);
+		}
+	}
+
+	/**
+	 * Rename the keys of the first occurrence of an element, which is repeated
+	 */
+	private void rename(Occurrences occurrences, String path) {
+		int prefixLength = occurrences.path.length();
+		for (int i = occurrences.start; i < occurrences.end; i++) {
+			keys.set(i, path + keys.get(i).substring(prefixLength));
+		}
+	}
+
+	private void emit(String key, String value) {
+		if (skipping > 0) {
+			return;
+		}
+		keys.add(key);
+		values.add(value);
+		ConfigParseLimits.checkKeys(keys.size());
+	}
+
+	private Frame top() {
+		return stack.isEmpty() ? null : stack.get(stack.size() - 1);
+	}
+
+	private static String name(XMLStreamReader reader) {
+		String prefix = reader.getPrefix();
+		return prefix == null || prefix.length() == 0 ? reader.getLocalName()
+				: prefix + ":" + reader.getLocalName();
+	}
+
+	/**
+	 * An open element
+	 */
+	private static class Frame {
+
+		private final String name;
+
+		private final String path;
+
+		private final boolean skipped;
+
+		/**
+		 * The child elements by name
+		 */
+		private final Map<String, Occurrences> occurrences = new HashMap<String, Occurrences>();
+
+		/**
+		 * The number of child nodes, as DOM counts them
+		 */
+		private int childNodes;
+
+		/**
+		 * Whether the last child node has children, only needed for the first one
+		 */
+		private boolean childHasChildren;
+
+		/**
+		 * Whether the last child node is a text which the next text is merged with
+		 */
+		private boolean mergeableText;
+
+		/**
+		 * The text of the first child node, if it's a text
+		 */
+		private StringBuilder text;
+
+		Frame(String name, String path, boolean skipped) {
+			this.name = name;
+			this.path = path;
+			this.skipped = skipped;
+		}
+
+		void childNode(boolean mergeableText) {
+			this.childNodes++;
+			this.mergeableText = mergeableText;
+		}
+	}
+
+	/**
+	 * The occurrences of the child elements of a name
+	 */
+	private static class Occurrences {
+
+		/**
+		 * The path of the first occurrence before it's renamed
+		 */
+		private final String path;
+
+		/**
+		 * The range of the keys of the first occurrence
+		 */
+		private final int start;
+
+		private int end;
+
+		private int count = 1;
+
+		Occurrences(String path, int start) {
+			this.path = path;
+			this.start = start;
+		}
+	}
+
+}
@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.nacos.spring.util.ConfigParseLimits;
+import com.alibaba.nacos.spring.util.StreamingConfigParse.Sink;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.ParserException;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import static com.alibaba.nacos.client.utils.StringUtils.isBlank;
+
+/**
+ * Flattens YAML into the output straight from the event stream of
+ * {@link Yaml#parse(java.io.Reader)}, keeping the paths of the open mappings and
+ * sequences on a stack, with the same keys and values as
+ * {@link DefaultYamlConfigParse#getFlattenedMap(Map)} of the constructed documents.
+ * <p>
+ * The anchors, aliases, merge keys, explicit tags and the keys which are collections or
+ * <code>null</code> are not flattened, {@link UnsupportedYamlException} is thrown for
+ * them, so that the documents are constructed instead.
+ * <p>
+ * If the active profiles are given, a document with the {@link #PROFILES_KEY} is
+ * flattened only if it's {@link #acceptsProfiles(String[], List) selected} by them, its
+ * properties are held back until then, and the rest of its events are skipped
+ * otherwise.
+ *
+ * @see DefaultYamlConfigParse
+ * @since 0.3.6
+ */
+class YamlEventFlattener {
+
+	/**
+	 * The key of a document which is not a mapping
+	 */
+	private static final String DOCUMENT_KEY = "document";
+
+	/**
+	 * The key of the profiles a document is for, such as "dev" or "!prod", separated by
+	 * ',' or as a sequence
+	 */
+	static final String PROFILES_KEY = "spring.profiles";
+
+	/**
+	 * {@link Resolver} is read only once built
+	 */
+	private static final Resolver resolver = new Resolver();
+
+	/**
+	 * Some of the constructs of the scalars are stateful, they are reused per thread
+	 */
+	private static final ThreadLocal<ScalarConstructor> constructors = new ThreadLocal<ScalarConstructor>() {
+		@Override
+		protected ScalarConstructor initialValue() {
+			return new ScalarConstructor();
+		}
+	};
+
+	private final ScalarConstructor constructor = constructors.get();
+
+	private final List<Frame> stack = new ArrayList<Frame>();
+
+	private final Sink output;
+
+	private final String[] activeProfiles;
+
+	/**
+	 * The properties of the current document held back until it's selected
+	 */
+	private final List<Object> heldBack = new ArrayList<Object>();
+
+	/**
+	 * The profiles of the current document
+	 */
+	private final List<String> profiles = new ArrayList<String>();
+
+	/**
+	 * Whether the current document is selected, <code>null</code> if it's unknown yet
+	 */
+	private Boolean selected;
+
+	/**
+	 * @param output the output of the flattened properties
+	 */
+	YamlEventFlattener(Sink output) {
+		this(output, null);
+	}
+
+	/**
+	 * @param output the output of the flattened properties
+	 * @param activeProfiles the active profiles selecting the documents, all of them are
+	 *     selected if <code>null</code>
+	 */
+	YamlEventFlattener(Sink output, String[] activeProfiles) {
+		this.output = output;
+		this.activeProfiles = activeProfiles;
+	}
+
+	/**
+	 * Flatten all the documents of the content, the later ones override the earlier
+	 * ones
+	 *
+	 * @param yaml {@link Yaml}
+	 * @param content the YAML content
+	 * @return the number of the documents flattened, the ones not selected excluded
+	 * @throws UnsupportedYamlException if the content can't be flattened from the
+	 *     events
+	 * @throws com.alibaba.nacos.spring.util.ConfigParseLimitException if it's nested
+	 *     too deep
+	 */
+	int flatten(Yaml yaml, String content) {
+		int count = 0;
+		for (Event event : yaml.parse(new StringReader(content))) {
+			if (event.is(Event.ID.DocumentStart)) {
+				stack.clear();
+				heldBack.clear();
+				profiles.clear();
+				selected = activeProfiles == null ? Boolean.TRUE : null;
+			}
+			else if (event.is(Event.ID.DocumentEnd)) {
+				if (selected == null) { // No profiles
+					select(true);
+				}
+				if (selected) {
+					count++;
+				}
+			}
+			else if (Boolean.FALSE.equals(selected)) {
+				// The rest of the document not selected is skipped
+			}
+			else if (event.is(Event.ID.MappingStart)
+					|| event.is(Event.ID.SequenceStart)) {
+				startCollection((CollectionStartEvent) event);
+			}
+			else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+				Frame frame = stack.remove(stack.size() - 1);
+				endValue();
+				if (selected == null && PROFILES_KEY.equals(frame.path)) {
+					select(acceptsProfiles(activeProfiles, profiles));
+				}
+			}
+			else if (event.is(Event.ID.Scalar)) {
+				scalar((ScalarEvent) event);
+			}
+			else if (event.is(Event.ID.Alias)) {
+				throw new UnsupportedYamlException("alias");
+			}
+		}
+		return count;
+	}
+
+	private void startCollection(CollectionStartEvent event) {
+		checkNode(event, event.getTag());
+		Frame parent = top();
+		if (parent != null && parent.isExpectingKey()) {
+			throw new UnsupportedYamlException("collection key");
+		}
+		boolean mapping = event.is(Event.ID.MappingStart);
+		String path = parent == null ? (mapping ? null : DOCUMENT_KEY)
+				: parent.childPath();
+		stack.add(new Frame(mapping, path));
+		ConfigParseLimits.checkDepth(stack.size());
+	}
+
+	private void scalar(ScalarEvent event) {
+		checkNode(event, event.getTag());
+		Object value = construct(event);
+		Frame parent = top();
+		if (parent != null && parent.isExpectingKey()) {
+			if (value == null) {
+				throw new UnsupportedYamlException("null key");
+			}
+			if (!parent.keys.add(value)) {
+				throw new ParserException("while parsing MappingNode",
+						event.getStartMark(), "Duplicate key: " + value,
+						event.getEndMark());
+			}
+			parent.key = value instanceof CharSequence ? value.toString()
+					: "[" + value + "]";
+			return;
+		}
+		if (parent == null) {
+			// A document can be a text literal
+			if (value != null) {
+				put(DOCUMENT_KEY, value instanceof String ? value : value.toString());
+			}
+			return;
+		}
+		String path = parent.childPath();
+		put(path, value instanceof String ? value
+				: (value != null ? value.toString() : ""));
+		endValue();
+		if (selected == null && PROFILES_KEY.equals(path)) {
+			select(acceptsProfiles(activeProfiles, profiles));
+		}
+	}
+
+	private void put(String key, Object value) {
+		if (Boolean.TRUE.equals(selected)) {
+			output.put(key, value);
+			return;
+		}
+		if (isProfilesKey(key)) {
+			profiles.add(value.toString());
+		}
+		heldBack.add(key);
+		heldBack.add(value);
+	}
+
+	private void select(boolean selected) {
+		this.selected = selected;
+		if (selected) {
+			for (int i = 0; i < heldBack.size(); i += 2) {
+				output.put((String) heldBack.get(i), heldBack.get(i + 1));
+			}
+		}
+		heldBack.clear();
+	}
+
+	/**
+	 * @param key the key of a property
+	 * @return whether it's the {@link #PROFILES_KEY} or an element of it
+	 */
+	static boolean isProfilesKey(String key) {
+		return key.startsWith(PROFILES_KEY) && (key.length() == PROFILES_KEY.length()
+				|| key.charAt(PROFILES_KEY.length()) == '[');
+	}
+
+	/**
+	 * Whether a document is selected by the active profiles, if any of its profiles is
+	 * active, or is not active if it's negated with '!'
+	 *
+	 * @param activeProfiles the active profiles
+	 * @param profiles the values of the {@link #PROFILES_KEY} of the document, separated
+	 *     by ','
+	 * @return <code>true</code> if the document has no profiles
+	 */
+	static boolean acceptsProfiles(String[] activeProfiles, List<String> profiles) {
+		boolean empty = true;
+		for (String value : profiles) {
+			for (String profile : value.split(",")) {
+				profile = profile.trim();
+				boolean negated = profile.startsWith("!");
+				if (negated) {
+					profile = profile.substring(1).trim();
+				}
+				if (profile.length() == 0) {
+					continue;
+				}
+				empty = false;
+				if (Arrays.asList(activeProfiles).contains(profile) != negated) {
+					return true;
+				}
+			}
+		}
+		return empty;
+	}
+
+	private void checkNode(NodeEvent event, String tag) {
+		if (event.getAnchor() != null) {
+			throw new UnsupportedYamlException("anchor");
+		}
+		if (tag != null && !"!".equals(tag)) {
+			throw new UnsupportedYamlException("explicit tag");
+		}
+	}
+
+	/**
+	 * Construct the scalar as the Composer and Constructor do
+	 */
+	private Object construct(ScalarEvent event) {
+		Tag tag = resolver.resolve(NodeId.scalar, event.getValue(),
+				event.getImplicit().canOmitTagInPlainScalar());
+		if (Tag.STR.equals(tag)) {
+			return event.getValue();
+		}
+		if (Tag.NULL.equals(tag)) {
+			return null;
+		}
+		if (Tag.MERGE.equals(tag)) {
+			throw new UnsupportedYamlException("merge key");
+		}
+		return constructor.construct(new ScalarNode(tag, event.getValue(),
+				event.getStartMark(), event.getEndMark(), event.getStyle()));
+	}
+
+	private void endValue() {
+		Frame parent = top();
+		if (parent != null) {
+			if (parent.mapping) {
+				parent.key = null;
+			}
+			else {
+				parent.index++;
+			}
+		}
+	}
+
+	private Frame top() {
+		return stack.isEmpty() ? null : stack.get(stack.size() - 1);
+	}
+
+	/**
+	 * An open mapping or sequence
+	 */
+	private static class Frame {
+
+		private final boolean mapping;
+
+		private final String path;
+
+		/**
+		 * The keys of the mapping, to tell the duplicate ones
+		 */
+		private final Set<Object> keys;
+
+		/**
+		 * The current key of the mapping, <code>null</code> if a key is expected
+		 */
+		private String key;
+
+		/**
+		 * The current index of the sequence
+		 */
+		private int index;
+
+		Frame(boolean mapping, String path) {
+			this.mapping = mapping;
+			this.path = path;
+			this.keys = mapping ? new HashSet<Object>() : null;
+		}
+
+		boolean isExpectingKey() {
+			return mapping && key == null;
+		}
+
+		String childPath() {
+			String childKey = mapping ? key : "[" + index + "]";
+			if (isBlank(path)) {
+				return childKey;
+			}
+			return childKey.startsWith("[") ? path + childKey : path + '.' + childKey;
+		}
+	}
+
+	/**
+	 * Constructs the scalars of the standard tags
+	 */
+	private static class ScalarConstructor extends Constructor {
+
+		Object construct(ScalarNode node) {
+			return getConstructor(node).construct(node);
+		}
+	}
+
+	/**
+	 * The YAML can't be flattened from the events
+	 */
+	static class UnsupportedYamlException extends RuntimeException {
+
+		UnsupportedYamlException(String feature) {
+			super(feature + " is not supported by the event stream flattening");
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.nacos.spring.util.ConfigParseLimits;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+
+/**
+ * Checks the YAML content against the {@link ConfigParseLimits} from the event stream,
+ * before the documents are constructed: the aliases are counted as the nodes they
+ * expand to, and they nest the anchored nodes as deep as they are, so that a small
+ * content expanding exponentially is rejected before it is expanded.
+ *
+ * @see DefaultYamlConfigParse
+ * @since 0.3.6
+ */
+class YamlLimitChecker {
+
+	/**
+	 * The anchored nodes closed, by their anchors
+	 */
+	private final Map<String, Node> anchors = new HashMap<String, Node>();
+
+	private final List<Node> stack = new ArrayList<Node>();
+
+	private long expansions;
+
+	/**
+	 * Check all the documents of the content
+	 *
+	 * @param yaml {@link Yaml}
+	 * @param content the YAML content
+	 * @throws com.alibaba.nacos.spring.util.ConfigParseLimitException if it's nested
+	 *     too deep or its aliases expand too many nodes
+	 */
+	void check(Yaml yaml, String content) {
+		for (Event event : yaml.parse(new StringReader(content))) {
+			if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+				stack.add(new Node(((NodeEvent) event).getAnchor()));
+				ConfigParseLimits.checkDepth(stack.size());
+			}
+			else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+				Node node = stack.remove(stack.size() - 1);
+				node.height++;
+				close(node);
+			}
+			else if (event.is(Event.ID.Scalar)) {
+				close(new Node(((NodeEvent) event).getAnchor()));
+			}
+			else if (event.is(Event.ID.Alias)) {
+				alias((AliasEvent) event);
+			}
+		}
+	}
+
+	private void alias(AliasEvent event) {
+		String anchor = event.getAnchor();
+		for (Node open : stack) {
+			if (anchor.equals(open.anchor)) {
+				// A recursive node, which is infinitely deep once flattened
+				ConfigParseLimits.checkDepth(Integer.MAX_VALUE);
+			}
+		}
+		Node anchored = anchors.get(anchor);
+		if (anchored == null) {
+			// An undefined alias, which fails to be composed
+			return;
+		}
+		expansions += anchored.size;
+		ConfigParseLimits.checkExpansions(expansions);
+		ConfigParseLimits.checkDepth(stack.size() + anchored.height);
+		Node node = new Node(null);
+		node.size = anchored.size;
+		node.height = anchored.height;
+		close(node);
+	}
+
+	private void close(Node node) {
+		if (node.anchor != null) {
+			anchors.put(node.anchor, node);
+		}
+		if (!stack.isEmpty()) {
+			Node parent = stack.get(stack.size() - 1);
+			parent.size += node.size;
+			parent.height = Math.max(parent.height, node.height);
+		}
+	}
+
+	/**
+	 * A node, its size and height include the nodes its aliases expand to
+	 */
+	private static class Node {
+
+		private final String anchor;
+
+		/**
+		 * The number of the nodes
+		 */
+		private long size = 1;
+
+		/**
+		 * The height of the nested collections, 0 of a scalar
+		 */
+		private int height;
+
+		Node(String anchor) {
+			this.anchor = anchor;
+		}
+	}
+
+}
@@ -16,7 +16,10 @@
  */
 package com.alibaba.nacos.spring.context.annotation.config;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import com.alibaba.nacos.api.annotation.NacosInjected;
@@ -28,6 +31,7 @@ import com.alibaba.nacos.spring.beans.factory.annotation.AnnotationNacosInjected
 import com.alibaba.nacos.spring.beans.factory.annotation.ConfigServiceBeanBuilder;
 import com.alibaba.nacos.spring.context.annotation.EnableNacos;
 import com.alibaba.nacos.spring.core.env.AnnotationNacosPropertySourceBuilder;
+import com.alibaba.nacos.spring.core.env.NacosCompositePropertySource;
 import com.alibaba.nacos.spring.core.env.NacosPropertySourcePostProcessor;
 import com.alibaba.nacos.spring.factory.ApplicationContextHolder;
 import com.alibaba.nacos.spring.test.AbstractNacosHttpServerTestExecutionListener;
@@ -42,6 +46,8 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertySource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
@@ -53,6 +59,8 @@ import static com.alibaba.nacos.api.common.Constants.DEFAULT_GROUP;
 import static com.alibaba.nacos.embedded.web.server.NacosConfigHttpHandler.CONTENT_PARAM_NAME;
 import static com.alibaba.nacos.embedded.web.server.NacosConfigHttpHandler.DATA_ID_PARAM_NAME;
 import static com.alibaba.nacos.embedded.web.server.NacosConfigHttpHandler.GROUP_ID_PARAM_NAME;
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_COMPOSITE_PROPERTY_SOURCE;
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_PROPERTY_SOURCE_LOAD_PARALLELISM;
 import static com.alibaba.nacos.spring.test.MockNacosServiceFactory.DATA_ID;
 import static com.alibaba.nacos.spring.test.TestConfiguration.CONFIG_SERVICE_BEAN_NAME;
 import static org.springframework.core.env.StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME;
@@ -76,6 +84,8 @@ public class NacosPropertySourcePostProcessorTest
 
 	private static final String TEST_PROPERTY_NAME = "user.name";
 
+	private static final String COMPOSITE_DATA_ID = "composite";
+
 	private static final String TEST_PROPERTY_VALUE = "mercyblitz@"
 			+ System.currentTimeMillis();
 
@@ -170,6 +180,125 @@ public class NacosPropertySourcePostProcessorTest
 		Assert.assertEquals("/My/Path", propertyValue);
 	}
 
+	@Test
+	public void testConcurrentLoadOrder() throws NacosException {
+
+		AnnotationConfigApplicationContext context = createContext(DATA_ID, DEFAULT_GROUP,
+				TEST_CONTENT);
+
+		context.getEnvironment().getPropertySources()
+				.addLast(new MapPropertySource("test", Collections.<String, Object> singletonMap(
+						NACOS_CONFIG_PROPERTY_SOURCE_LOAD_PARALLELISM, "4")));
+
+		context.register(FirstOrderNacosPropertySource.class);
+
+		context.refresh();
+
+		MutablePropertySources propertySources = context.getEnvironment()
+				.getPropertySources();
+
+		Iterator<PropertySource<?>> iterator = propertySources.iterator();
+
+		// Added in the declared order
+		Assert.assertEquals("first", iterator.next().getName());
+		Assert.assertEquals("second", iterator.next().getName());
+
+		Assert.assertEquals(TEST_PROPERTY_VALUE,
+				context.getEnvironment().getProperty(TEST_PROPERTY_NAME));
+		Assert.assertEquals(TEST_PROPERTY_VALUE,
+				propertySources.get("second").getProperty(TEST_PROPERTY_NAME));
+	}
+
+	@Test
+	public void testCompositeOrder() throws NacosException {
+
+		AnnotationConfigApplicationContext context = createContext(DATA_ID, DEFAULT_GROUP,
+				TEST_CONTENT);
+
+		configService.publishConfig(COMPOSITE_DATA_ID, DEFAULT_GROUP,
+				TEST_PROPERTY_NAME + "=composite");
+
+		context.getEnvironment().getPropertySources()
+				.addLast(new MapPropertySource("test", Collections.<String, Object> singletonMap(
+						NACOS_CONFIG_COMPOSITE_PROPERTY_SOURCE, "true")));
+
+		context.register(CompositeNacosPropertySource.class);
+
+		context.refresh();
+
+		MutablePropertySources propertySources = context.getEnvironment()
+				.getPropertySources();
+
+		Iterator<PropertySource<?>> iterator = propertySources.iterator();
+
+		// The named one may be referenced by name, so it isn't merged
+		PropertySource namedPropertySource = iterator.next();
+		Assert.assertEquals("named", namedPropertySource.getName());
+		Assert.assertSame(namedPropertySource, propertySources.get("named"));
+
+		PropertySource propertySource = iterator.next();
+		Assert.assertSame(propertySource,
+				propertySources.get(NacosCompositePropertySource.NAME));
+
+		NacosCompositePropertySource compositePropertySource = (NacosCompositePropertySource) propertySource;
+
+		Assert.assertEquals(2, compositePropertySource.getPropertySources().size());
+		com.alibaba.nacos.spring.core.env.NacosPropertySource first = compositePropertySource
+				.getPropertySources().get(0);
+		com.alibaba.nacos.spring.core.env.NacosPropertySource second = compositePropertySource
+				.getPropertySources().get(1);
+		Assert.assertEquals(COMPOSITE_DATA_ID, first.getDataId());
+		Assert.assertEquals(DATA_ID, second.getDataId());
+		Assert.assertSame(first,
+				compositePropertySource.getPropertySource(first.getName()));
+
+		Assert.assertEquals(TEST_PROPERTY_VALUE,
+				context.getEnvironment().getProperty(TEST_PROPERTY_NAME));
+		Assert.assertEquals("composite", propertySource.getProperty(TEST_PROPERTY_NAME));
+		Assert.assertEquals("/My/Path", propertySource.getProperty("PATH"));
+
+		// Only the changed keys are re-merged, in the order of precedence
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put(TEST_PROPERTY_NAME, "second");
+		compositePropertySource.setSource(second, properties,
+				Arrays.asList(TEST_PROPERTY_NAME, "PATH"));
+		Assert.assertEquals("composite", propertySource.getProperty(TEST_PROPERTY_NAME));
+		Assert.assertNull(propertySource.getProperty("PATH"));
+
+		compositePropertySource.setSource(first, Collections.emptyMap(),
+				Collections.singleton(TEST_PROPERTY_NAME));
+		Assert.assertEquals("second", propertySource.getProperty(TEST_PROPERTY_NAME));
+		Assert.assertEquals(1, compositePropertySource.getPropertyNames().length);
+	}
+
+	@Test
+	public void testCompositeRelativeOrder() throws NacosException {
+
+		AnnotationConfigApplicationContext context = createContext(DATA_ID, DEFAULT_GROUP,
+				TEST_CONTENT);
+
+		configService.publishConfig(COMPOSITE_DATA_ID, DEFAULT_GROUP,
+				TEST_PROPERTY_NAME + "=composite");
+
+		context.getEnvironment().getPropertySources()
+				.addLast(new MapPropertySource("test", Collections.<String, Object> singletonMap(
+						NACOS_CONFIG_COMPOSITE_PROPERTY_SOURCE, "true")));
+
+		context.register(RelativeCompositeNacosPropertySource.class);
+
+		context.refresh();
+
+		MutablePropertySources propertySources = context.getEnvironment()
+				.getPropertySources();
+
+		// The ones referenced by before or after keep their names
+		Assert.assertNotNull(propertySources.get("base"));
+		Assert.assertNotNull(propertySources.get("override"));
+		Assert.assertNull(propertySources.get(NacosCompositePropertySource.NAME));
+		Assert.assertTrue(propertySources.precedenceOf(propertySources.get("override"))
+				< propertySources.precedenceOf(propertySources.get("base")));
+	}
+
 	private AnnotationConfigApplicationContext createContext(String dataId,
 			String groupId, String content) throws NacosException {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
@@ -199,4 +328,18 @@ public class NacosPropertySourcePostProcessorTest
 	private static class RelativeOrderNacosPropertySource {
 
 	}
+
+	@NacosPropertySources({ @NacosPropertySource(dataId = DATA_ID, first = true),
+			@NacosPropertySource(dataId = COMPOSITE_DATA_ID, first = true),
+			@NacosPropertySource(name = "named", dataId = DATA_ID, first = true) })
+	private static class CompositeNacosPropertySource {
+
+	}
+
+	@NacosPropertySources({
+			@NacosPropertySource(name = "base", dataId = DATA_ID, first = true),
+			@NacosPropertySource(name = "override", dataId = COMPOSITE_DATA_ID, before = "base") })
+	private static class RelativeCompositeNacosPropertySource {
+
+	}
 }
@@ -16,7 +16,9 @@
  */
 package com.alibaba.nacos.spring.context.annotation.config;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 import com.alibaba.nacos.api.annotation.NacosInjected;
@@ -26,6 +28,8 @@ import com.alibaba.nacos.api.config.annotation.NacosValue;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.embedded.web.server.EmbeddedNacosHttpServer;
 import com.alibaba.nacos.spring.context.annotation.EnableNacos;
+import com.alibaba.nacos.spring.context.event.config.NacosConfigRejectedEvent;
+import com.alibaba.nacos.spring.context.event.config.NacosPropertySourceChangedEvent;
 import com.alibaba.nacos.spring.test.AbstractNacosHttpServerTestExecutionListener;
 import org.junit.Assert;
 import org.junit.Test;
@@ -33,7 +37,9 @@ import org.junit.runner.RunWith;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.test.context.ContextConfiguration;
@@ -85,6 +91,10 @@ public class NacosPropertySourceTest
 	private App app;
 	@Autowired
 	private Environment environment;
+	@Autowired
+	private PropertySourceChangedListener propertySourceChangedListener;
+	@Autowired
+	private ConfigRejectedListener configRejectedListener;
 
 	@Override
 	public void init(EmbeddedNacosHttpServer httpServer) {
@@ -108,6 +118,16 @@ public class NacosPropertySourceTest
 		return new App();
 	}
 
+	@Bean
+	public PropertySourceChangedListener propertySourceChangedListener() {
+		return new PropertySourceChangedListener();
+	}
+
+	@Bean
+	public ConfigRejectedListener configRejectedListener() {
+		return new ConfigRejectedListener();
+	}
+
 	@Test
 	public void testValue() throws NacosException, InterruptedException {
 		Assert.assertEquals(APP_NAME, app.name);
@@ -130,6 +150,8 @@ public class NacosPropertySourceTest
 
 		Assert.assertEquals(VALUE_2, app.nacosMethodIntValueAutoRefreshed);
 
+		com.alibaba.nacos.spring.core.env.NacosPropertySource nacosPropertySource = getNacosPropertySource();
+
 		configService.publishConfig(DATA_ID, DEFAULT_GROUP, "app.name=" + ANOTHER_APP_NAME
 				+ LINE_SEPARATOR + "app.nacosFieldIntValueAutoRefreshed=" + VALUE_3
 				+ LINE_SEPARATOR + "app.nacosMethodIntValueAutoRefreshed=" + VALUE_4);
@@ -155,6 +177,76 @@ public class NacosPropertySourceTest
 		Assert.assertEquals(VALUE_3, app.nacosFieldIntValueAutoRefreshed);
 
 		Assert.assertEquals(VALUE_4, app.nacosMethodIntValueAutoRefreshed);
+
+		NacosPropertySourceChangedEvent event = propertySourceChangedListener.event;
+		Assert.assertNotNull(event);
+		Assert.assertEquals(DATA_ID, event.getDataId());
+		Assert.assertEquals(new HashSet<String>(Arrays.asList("app.name",
+				"app.nacosFieldIntValueAutoRefreshed",
+				"app.nacosMethodIntValueAutoRefreshed")), event.getChangedKeys());
+		Assert.assertTrue(event.getAddedKeys().isEmpty());
+		Assert.assertTrue(event.getRemovedKeys().isEmpty());
+
+		// The properties are swapped in the same NacosPropertySource
+		Assert.assertSame(nacosPropertySource, getNacosPropertySource());
+		Assert.assertEquals(ANOTHER_APP_NAME, nacosPropertySource.getProperty("app.name"));
+		try {
+			nacosPropertySource.getSource().put("app.name", APP_NAME);
+			Assert.fail("The properties of NacosPropertySource should be immutable");
+		}
+		catch (UnsupportedOperationException expected) {
+		}
+
+		// A config of too many properties is rejected, the previous one is kept
+		StringBuilder content = new StringBuilder("app.name=" + APP_NAME);
+		for (int i = 0; i < 100000; i++) {
+			content.append(LINE_SEPARATOR).append("app.key").append(i).append("=")
+					.append(i);
+		}
+		configService.publishConfig(DATA_ID, DEFAULT_GROUP, content.toString());
+
+		Thread.sleep(1000);
+
+		NacosConfigRejectedEvent rejectedEvent = configRejectedListener.event;
+		Assert.assertNotNull(rejectedEvent);
+		Assert.assertEquals(DATA_ID, rejectedEvent.getDataId());
+		Assert.assertEquals("nacos.config.parse.max.keys",
+				rejectedEvent.getLimitProperty());
+		Assert.assertEquals(ANOTHER_APP_NAME, app.nacosNameAutoRefreshed);
+		Assert.assertEquals(ANOTHER_APP_NAME, environment.getProperty("app.name"));
+		Assert.assertSame(nacosPropertySource, getNacosPropertySource());
+	}
+
+	private com.alibaba.nacos.spring.core.env.NacosPropertySource getNacosPropertySource() {
+		for (org.springframework.core.env.PropertySource<?> propertySource : ((ConfigurableEnvironment) environment)
+				.getPropertySources()) {
+			if (propertySource instanceof com.alibaba.nacos.spring.core.env.NacosPropertySource) {
+				return (com.alibaba.nacos.spring.core.env.NacosPropertySource) propertySource;
+			}
+		}
+		return null;
+	}
+
+	public static class PropertySourceChangedListener
+			implements ApplicationListener<NacosPropertySourceChangedEvent> {
+
+		private volatile NacosPropertySourceChangedEvent event;
+
+		@Override
+		public void onApplicationEvent(NacosPropertySourceChangedEvent event) {
+			this.event = event;
+		}
+	}
+
+	public static class ConfigRejectedListener
+			implements ApplicationListener<NacosConfigRejectedEvent> {
+
+		private volatile NacosConfigRejectedEvent event;
+
+		@Override
+		public void onApplicationEvent(NacosConfigRejectedEvent event) {
+			this.event = event;
+		}
 	}
 
 	public static class App {
@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.annotation.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.nacos.api.config.annotation.NacosValue;
+import com.alibaba.nacos.spring.context.event.config.NacosConfigReceivedEvent;
+import com.alibaba.nacos.spring.core.env.NacosPropertySource;
+import com.alibaba.nacos.spring.test.MockConfigService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.StringValueResolver;
+
+import static com.alibaba.nacos.api.common.Constants.DEFAULT_GROUP;
+
+/**
+ * {@link NacosValueAnnotationBeanPostProcessor} Test
+ *
+ * @see NacosValueAnnotationBeanPostProcessor
+ */
+public class NacosValueAnnotationBeanPostProcessorTest {
+
+	private static final String DATA_ID = "app";
+
+	private static final String OTHER_DATA_ID = "other";
+
+	private final StandardEnvironment environment = new StandardEnvironment();
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final NacosValueAnnotationBeanPostProcessor processor = new NacosValueAnnotationBeanPostProcessor();
+
+	@Before
+	public void init() {
+		publish("app.name=Nacos\napp.port=8848");
+
+		processor.setBeanFactory(beanFactory);
+		processor.setEnvironment(environment);
+		beanFactory.addBeanPostProcessor(processor);
+		beanFactory.addEmbeddedValueResolver(new StringValueResolver() {
+			@Override
+			public String resolveStringValue(String strVal) {
+				return environment.resolvePlaceholders(strVal);
+			}
+		});
+		beanFactory.registerBeanDefinition("app", new RootBeanDefinition(App.class));
+	}
+
+	@Test
+	public void testRefresh() {
+		App app = beanFactory.getBean(App.class);
+		Assert.assertEquals("Nacos", app.name);
+		Assert.assertEquals(8848, app.port);
+
+		publish("app.name=Nacos-Spring\napp.port=8848");
+
+		Assert.assertEquals("Nacos-Spring", app.name);
+		Assert.assertEquals(8848, app.port);
+
+		publish("app.name=Nacos-Spring\napp.port=9090");
+
+		Assert.assertEquals("Nacos-Spring", app.name);
+		Assert.assertEquals(9090, app.port);
+	}
+
+	@Test
+	public void testRefreshResolvedMembers() {
+		App app = beanFactory.getBean(App.class);
+
+		// The members are resolved once, their values are converted on every refresh
+		for (int port = 1; port <= 3; port++) {
+			publish("app.name=Nacos-" + port + "\napp.port=" + port);
+
+			Assert.assertEquals("Nacos-" + port, app.name);
+			Assert.assertEquals(port, app.port);
+		}
+	}
+
+	@Test
+	public void testRefreshCompositeAndNestedPlaceholders() {
+		publish("app.name=Nacos\napp.port=8848\napp.env=dev\n"
+				+ "app.dev.url=http://dev\napp.prod.url=http://prod");
+
+		App app = beanFactory.getBean(App.class);
+		Assert.assertEquals("Nacos:8848", app.address);
+		Assert.assertEquals("http://dev", app.url);
+
+		publish("app.name=Nacos\napp.port=9090\napp.env=prod\n"
+				+ "app.dev.url=http://dev\napp.prod.url=http://prod");
+
+		Assert.assertEquals("Nacos:9090", app.address);
+		Assert.assertEquals("http://prod", app.url);
+
+		// The key of the nested placeholder has followed app.env
+		publish("app.name=Nacos\napp.port=9090\napp.env=prod\n"
+				+ "app.dev.url=http://dev\napp.prod.url=http://prod-1");
+
+		Assert.assertEquals("http://prod-1", app.url);
+	}
+
+	@Test
+	public void testRefreshOnlyChangedKeys() {
+		publish(OTHER_DATA_ID, "other.name=Other");
+		beanFactory.registerBeanDefinition("counter",
+				new RootBeanDefinition(Counter.class));
+		Counter counter = beanFactory.getBean(Counter.class);
+		Assert.assertEquals(1, counter.nameSets);
+		Assert.assertEquals(1, counter.portSets);
+		Assert.assertEquals(1, counter.otherNameSets);
+
+		// The first event of a source is diffed against the properties the values
+		// were resolved from
+		publish("app.name=Nacos\napp.port=8848");
+		int nameSets = counter.nameSets;
+		int portSets = counter.portSets;
+		Assert.assertEquals(1, nameSets);
+		Assert.assertEquals(1, portSets);
+		Assert.assertEquals(1, counter.otherNameSets);
+
+		publish("app.name=Nacos-Spring\napp.port=8848");
+
+		Assert.assertEquals("Nacos-Spring", counter.name);
+		Assert.assertEquals(nameSets + 1, counter.nameSets);
+		// Neither the unchanged key nor the other source is re-set
+		Assert.assertEquals(portSets, counter.portSets);
+		Assert.assertEquals(1, counter.otherNameSets);
+
+		publish(OTHER_DATA_ID, "other.name=Other-1");
+
+		Assert.assertEquals("Other-1", counter.otherName);
+		Assert.assertEquals(2, counter.otherNameSets);
+		Assert.assertEquals(nameSets + 1, counter.nameSets);
+		Assert.assertEquals(portSets, counter.portSets);
+	}
+
+	@Test
+	public void testRemoveKeyOnFirstEvent() {
+		App app = beanFactory.getBean(App.class);
+		Assert.assertEquals(8848, app.port);
+
+		publish("app.name=Nacos");
+
+		Assert.assertEquals(80, app.port);
+	}
+
+	@Test
+	public void testUnchangedRepublish() {
+		beanFactory.registerBeanDefinition("counter",
+				new RootBeanDefinition(Counter.class));
+		Counter counter = beanFactory.getBean(Counter.class);
+
+		publish("app.name=Nacos-Spring\napp.port=8848");
+		int nameSets = counter.nameSets;
+		int portSets = counter.portSets;
+
+		publish("app.name=Nacos-Spring\napp.port=8848");
+		// The same properties in another order
+		publish("app.port=8848\napp.name=Nacos-Spring");
+
+		Assert.assertEquals(nameSets, counter.nameSets);
+		Assert.assertEquals(portSets, counter.portSets);
+	}
+
+	@Test
+	public void testIndexedPlaceholders() {
+		beanFactory.registerBeanDefinition("fallback",
+				new RootBeanDefinition(Fallback.class));
+		App app = beanFactory.getBean(App.class);
+		Fallback fallback = beanFactory.getBean(Fallback.class);
+		Assert.assertEquals("Nacos", fallback.title);
+		Assert.assertTrue(processor.requiresDestruction(app));
+		Assert.assertTrue(processor.requiresDestruction(fallback));
+		Assert.assertFalse(processor.requiresDestruction(new Object()));
+
+		publish("app.name=Nacos\napp.port=8848");
+		int titleSets = fallback.titleSets;
+
+		// The composite placeholder is indexed by each of its keys
+		publish("app.name=Nacos\napp.port=9090");
+
+		Assert.assertEquals("Nacos:9090", app.address);
+		Assert.assertEquals(titleSets, fallback.titleSets);
+
+		// The nested default is indexed by the key it falls back to
+		publish("app.name=Nacos-Spring\napp.port=9090");
+
+		Assert.assertEquals("Nacos-Spring:9090", app.address);
+		Assert.assertEquals("Nacos-Spring", fallback.title);
+		Assert.assertEquals(titleSets + 1, fallback.titleSets);
+
+		// and by the key that isn't present yet
+		publish("app.name=Nacos-Spring\napp.port=9090\napp.title=Title");
+
+		Assert.assertEquals("Title", fallback.title);
+		Assert.assertEquals(titleSets + 2, fallback.titleSets);
+
+		// The fallback key still leads to the placeholder, whose value is unchanged
+		publish("app.name=Nacos\napp.port=9090\napp.title=Title");
+
+		Assert.assertEquals("Title", fallback.title);
+		Assert.assertEquals(titleSets + 2, fallback.titleSets);
+	}
+
+	@Test
+	public void testRegisterWhileRefreshing() throws Exception {
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(App.class);
+		beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototypeApp", beanDefinition);
+
+		final int threads = 4;
+		final int beansPerThread = 200;
+		final List<App> apps = new CopyOnWriteArrayList<App>();
+		final List<Throwable> errors = new CopyOnWriteArrayList<Throwable>();
+		final AtomicBoolean registering = new AtomicBoolean(true);
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+
+		for (int i = 0; i < threads; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int j = 0; j < beansPerThread; j++) {
+							// Strongly referenced, the targets are weak
+							apps.add(beanFactory.getBean("prototypeApp", App.class));
+						}
+					}
+					catch (Throwable e) {
+						errors.add(e);
+					}
+					finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+		Thread publisher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					start.await();
+					for (int port = 1; registering.get(); port++) {
+						publish("app.name=Nacos-" + port + "\napp.port=" + port);
+					}
+				}
+				catch (Throwable e) {
+					errors.add(e);
+				}
+			}
+		});
+		publisher.start();
+
+		start.countDown();
+		done.await();
+		registering.set(false);
+		publisher.join();
+
+		Assert.assertTrue(errors.toString(), errors.isEmpty());
+		Assert.assertEquals(threads * beansPerThread, apps.size());
+
+		// None of the targets registered concurrently is lost
+		publish("app.name=Nacos-Spring\napp.port=9090");
+
+		for (App app : apps) {
+			Assert.assertEquals("Nacos-Spring", app.name);
+			Assert.assertEquals(9090, app.port);
+			Assert.assertEquals("Nacos-Spring:9090", app.address);
+		}
+	}
+
+	@Test
+	public void testUnregisterOnDestruction() {
+		App app = beanFactory.getBean(App.class);
+
+		beanFactory.destroySingletons();
+
+		publish("app.name=Nacos-Spring\napp.port=9090");
+
+		Assert.assertEquals("Nacos", app.name);
+		Assert.assertEquals(8848, app.port);
+	}
+
+	@Test
+	public void testAtomicRefresh() {
+		processor.setAtomicRefresh(true);
+		App app = beanFactory.getBean(App.class);
+		Assert.assertEquals(0, processor.getRefreshVersion());
+
+		publish("app.name=Nacos-Spring\napp.port=9090");
+
+		Assert.assertEquals("Nacos-Spring", app.name);
+		Assert.assertEquals(9090, app.port);
+		Assert.assertEquals("Nacos-Spring:9090", app.address);
+		Assert.assertEquals(2, processor.getRefreshVersion());
+
+		// app.port can't be converted, so app.name isn't applied either
+		publish("app.name=Nacos\napp.port=port");
+
+		Assert.assertEquals("Nacos-Spring", app.name);
+		Assert.assertEquals(9090, app.port);
+		Assert.assertEquals("Nacos-Spring:9090", app.address);
+		Assert.assertEquals(2, processor.getRefreshVersion());
+
+		publish("app.name=Nacos\napp.port=8848");
+
+		Assert.assertEquals("Nacos", app.name);
+		Assert.assertEquals(8848, app.port);
+		Assert.assertEquals(4, processor.getRefreshVersion());
+	}
+
+	private void publish(String content) {
+		publish(DATA_ID, content);
+	}
+
+	private void publish(String dataId, String content) {
+		String name = "nacos-" + dataId;
+		NacosPropertySource propertySource = new NacosPropertySource(dataId,
+				DEFAULT_GROUP, name, content, "properties");
+		propertySource.setDataId(dataId);
+		propertySource.setGroupId(DEFAULT_GROUP);
+		if (environment.getPropertySources().contains(name)) {
+			environment.getPropertySources().replace(name, propertySource);
+			processor.onApplicationEvent(new NacosConfigReceivedEvent(
+					new MockConfigService(), dataId, DEFAULT_GROUP, content,
+					"properties"));
+		}
+		else {
+			environment.getPropertySources().addFirst(propertySource);
+		}
+	}
+
+	static class App {
+
+		@NacosValue(value = "${app.name}", autoRefreshed = true)
+		private String name;
+
+		private int port;
+
+		@NacosValue(value = "${app.name}:${app.port}", autoRefreshed = true)
+		private String address;
+
+		@NacosValue(value = "${app.${app.env:dev}.url:none}", autoRefreshed = true)
+		private String url;
+
+		@NacosValue(value = "${app.port:80}", autoRefreshed = true)
+		public void setPort(int port) {
+			this.port = port;
+		}
+	}
+
+	static class Fallback {
+
+		private String title;
+
+		private int titleSets;
+
+		@NacosValue(value = "${app.title:${app.name}}", autoRefreshed = true)
+		public void setTitle(String title) {
+			this.title = title;
+			titleSets++;
+		}
+	}
+
+	static class Counter {
+
+		private String name;
+
+		private String otherName;
+
+		private int nameSets;
+
+		private int portSets;
+
+		private int otherNameSets;
+
+		@NacosValue(value = "${app.name}", autoRefreshed = true)
+		public void setName(String name) {
+			this.name = name;
+			nameSets++;
+		}
+
+		@NacosValue(value = "${app.port}", autoRefreshed = true)
+		public void setPort(int port) {
+			portSets++;
+		}
+
+		@NacosValue(value = "${other.name}", autoRefreshed = true)
+		public void setOtherName(String otherName) {
+			this.otherName = otherName;
+			otherNameSets++;
+		}
+	}
+
+}
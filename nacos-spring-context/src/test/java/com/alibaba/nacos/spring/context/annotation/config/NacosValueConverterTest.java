@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.annotation.config;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.nacos.spring.context.annotation.config.NacosValueConverter.ConversionKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * {@link NacosValueConverter} Test
+ *
+ * @see NacosValueConverter
+ */
+public class NacosValueConverterTest {
+
+	private final CountingTypeConverter typeConverter = new CountingTypeConverter();
+
+	private final Map<ConversionKey, Object> sharedCache = NacosValueConverter
+			.newSharedCache(2);
+
+	private Integer port;
+
+	private Integer anotherPort;
+
+	private List<String> names;
+
+	@Test
+	public void testImmutableTypeConvertedOnce() throws Exception {
+		Field port = field("port");
+		Field anotherPort = field("anotherPort");
+
+		NacosValueConverter converter = newConverter();
+		Assert.assertEquals(8848,
+				converter.convert("8848", port, new TypeDescriptor(port)));
+		Assert.assertEquals(8848,
+				converter.convert("8848", anotherPort, new TypeDescriptor(anotherPort)));
+		Assert.assertEquals(1, typeConverter.count);
+
+		// Across refreshes
+		Assert.assertEquals(8848,
+				newConverter().convert("8848", port, new TypeDescriptor(port)));
+		Assert.assertEquals(1, typeConverter.count);
+
+		Assert.assertEquals(9090,
+				newConverter().convert("9090", port, new TypeDescriptor(port)));
+		Assert.assertEquals(2, typeConverter.count);
+	}
+
+	@Test
+	public void testSharedCacheBounded() throws Exception {
+		Field port = field("port");
+		NacosValueConverter converter = newConverter();
+		for (int i = 0; i < 10; i++) {
+			converter.convert(String.valueOf(i), port, new TypeDescriptor(port));
+		}
+		Assert.assertEquals(2, sharedCache.size());
+	}
+
+	@Test
+	public void testMutableTypeConvertedPerTarget() throws Exception {
+		Field names = field("names");
+		NacosValueConverter converter = newConverter();
+
+		Object value = converter.convert("a,b", names, new TypeDescriptor(names));
+		Object anotherValue = converter.convert("a,b", names,
+				new TypeDescriptor(names));
+
+		Assert.assertEquals(value, anotherValue);
+		Assert.assertNotSame(value, anotherValue);
+		Assert.assertEquals(2, typeConverter.count);
+	}
+
+	private NacosValueConverter newConverter() {
+		return new NacosValueConverter(typeConverter, sharedCache);
+	}
+
+	private Field field(String name) throws NoSuchFieldException {
+		return getClass().getDeclaredField(name);
+	}
+
+	private static class CountingTypeConverter extends SimpleTypeConverter {
+
+		private int count;
+
+		@Override
+		public <T> T convertIfNecessary(Object value, Class<T> requiredType,
+				Field field) throws TypeMismatchException {
+			count++;
+			return super.convertIfNecessary(value, requiredType, field);
+		}
+
+	}
+
+}
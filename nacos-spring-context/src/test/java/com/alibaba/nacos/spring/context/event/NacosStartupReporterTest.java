@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.context.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import com.alibaba.nacos.api.annotation.NacosProperties;
+import com.alibaba.nacos.api.config.annotation.NacosConfigListener;
+import com.alibaba.nacos.embedded.web.server.EmbeddedNacosHttpServer;
+import com.alibaba.nacos.spring.context.annotation.EnableNacos;
+import com.alibaba.nacos.spring.context.annotation.config.NacosPropertySource;
+import com.alibaba.nacos.spring.context.event.NacosStartupReport.Phase;
+import com.alibaba.nacos.spring.context.event.NacosStartupReport.Step;
+import com.alibaba.nacos.spring.test.AbstractNacosHttpServerTestExecutionListener;
+import com.alibaba.nacos.spring.util.NacosStartupRecorder;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
+
+import static com.alibaba.nacos.api.common.Constants.DEFAULT_GROUP;
+import static com.alibaba.nacos.embedded.web.server.NacosConfigHttpHandler.CONTENT_PARAM_NAME;
+import static com.alibaba.nacos.embedded.web.server.NacosConfigHttpHandler.DATA_ID_PARAM_NAME;
+import static com.alibaba.nacos.embedded.web.server.NacosConfigHttpHandler.GROUP_ID_PARAM_NAME;
+
+/**
+ * {@link NacosStartupReporter} Test
+ *
+ * @see NacosStartupReporter
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = { NacosStartupReporterTest.class })
+@TestExecutionListeners({ DependencyInjectionTestExecutionListener.class,
+		DirtiesContextTestExecutionListener.class, NacosStartupReporterTest.class })
+@NacosPropertySource(dataId = NacosStartupReporterTest.DATA_ID, autoRefreshed = true)
+@EnableNacos(globalProperties = @NacosProperties(serverAddr = "${server.addr}"))
+@Component
+public class NacosStartupReporterTest
+		extends AbstractNacosHttpServerTestExecutionListener {
+
+	public static final String DATA_ID = "startup";
+
+	private static final String CONFIG_NAME = DEFAULT_GROUP + ":" + DATA_ID;
+
+	@Autowired
+	private NacosStartupReporter nacosStartupReporter;
+
+	@Autowired
+	private StartupReportListener startupReportListener;
+
+	@Autowired
+	private NacosStartupRecorder nacosStartupRecorder;
+
+	@Override
+	public void init(EmbeddedNacosHttpServer httpServer) {
+		Map<String, String> config = new HashMap<String, String>(1);
+		config.put(DATA_ID_PARAM_NAME, DATA_ID);
+		config.put(GROUP_ID_PARAM_NAME, DEFAULT_GROUP);
+		// Unlike the contents of the other tests, so that it's parsed instead of shared
+		config.put(CONTENT_PARAM_NAME, "app.name=Nacos-Spring-Startup");
+		httpServer.initConfig(config);
+	}
+
+	@Override
+	protected String getServerAddressPropertyName() {
+		return "server.addr";
+	}
+
+	@Bean
+	public StartupReportListener startupReportListener() {
+		return new StartupReportListener();
+	}
+
+	@Bean
+	public Listeners listeners() {
+		return new Listeners();
+	}
+
+	@Test
+	public void testReport() throws Exception {
+		NacosStartupReportEvent event = startupReportListener.event;
+		Assert.assertNotNull(event);
+		NacosStartupReport report = event.getReport();
+		Assert.assertSame(report, nacosStartupReporter.getReport());
+
+		Set<String> steps = new HashSet<String>();
+		for (Step step : report.getSteps()) {
+			Assert.assertTrue(step.getDuration() >= 0);
+			steps.add(step.getPhase() + "[" + step.getName() + "]");
+		}
+		Assert.assertTrue(steps.contains(Phase.CONFIG_LOAD + "[" + CONFIG_NAME + "]"));
+		Assert.assertTrue(steps.contains(Phase.CONFIG_PARSE + "[" + CONFIG_NAME + "]"));
+		Assert.assertTrue(
+				steps.contains(Phase.LISTENER_REGISTRATION + "[" + CONFIG_NAME + "]"));
+		Assert.assertTrue(steps.contains(Phase.LISTENER_METHOD_SCAN + "[listeners]"));
+		Assert.assertTrue(report.getDuration(Phase.CONFIG_LOAD) > 0);
+
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		CompositeData[] mBeanSteps = (CompositeData[]) mBeanServer
+				.getAttribute(nacosStartupReporter.getObjectName(), "Steps");
+		Assert.assertEquals(report.getSteps().size(), mBeanSteps.length);
+		Assert.assertEquals(report.getSteps().get(0).getName(),
+				mBeanSteps[0].get("name"));
+		TabularData phaseDurations = (TabularData) mBeanServer
+				.getAttribute(nacosStartupReporter.getObjectName(), "PhaseDurations");
+		Assert.assertEquals(Phase.values().length, phaseDurations.size());
+	}
+
+	@Test
+	public void testNoStepRecordedAfterReport() {
+		nacosStartupRecorder.record(Phase.CONFIG_PARSE, CONFIG_NAME,
+				NacosStartupRecorder.start());
+		Assert.assertTrue(nacosStartupRecorder.takeReport().getSteps().isEmpty());
+	}
+
+	public static class StartupReportListener
+			implements ApplicationListener<NacosStartupReportEvent> {
+
+		private volatile NacosStartupReportEvent event;
+
+		@Override
+		public void onApplicationEvent(NacosStartupReportEvent event) {
+			this.event = event;
+		}
+	}
+
+	public static class Listeners {
+
+		@NacosConfigListener(dataId = DATA_ID)
+		public void onChange(String config) {
+		}
+	}
+
+}
@@ -16,6 +16,9 @@
  */
 package com.alibaba.nacos.spring.context.event.config;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 
@@ -25,6 +28,7 @@ import com.alibaba.nacos.api.config.listener.Listener;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.spring.metadata.NacosServiceMetaData;
 import com.alibaba.nacos.spring.test.MockConfigService;
+import com.alibaba.nacos.spring.util.ConfigContentCodec;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -33,7 +37,9 @@ import org.junit.Test;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
 
+import static com.alibaba.nacos.spring.context.constants.NacosConstants.NACOS_CONFIG_COMPRESSION_THRESHOLD;
 import static com.alibaba.nacos.spring.test.MockConfigService.TIMEOUT_ERROR_MESSAGE;
 import static com.alibaba.nacos.spring.test.MockNacosServiceFactory.CONTENT;
 import static com.alibaba.nacos.spring.test.MockNacosServiceFactory.DATA_ID;
@@ -169,6 +175,69 @@ public class EventPublishingConfigServiceTest {
 
 	}
 
+	@Test
+	public void testCompressedContent() throws NacosException {
+		context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("test", Collections
+						.<String, Object>singletonMap(NACOS_CONFIG_COMPRESSION_THRESHOLD,
+								"1024")));
+		ConfigService configService = new EventPublishingConfigService(
+				mockConfigService, properties, context, new Executor() {
+					@Override
+					public void execute(Runnable command) {
+						command.run();
+					}
+				});
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			builder.append("rules[").append(i).append("]=").append(i).append('\n');
+		}
+		final String content = builder.toString();
+		final List<String> received = new ArrayList<String>();
+		((EventPublishingConfigService) configService).addListener(DATA_ID, GROUP_ID,
+				"properties", new AbstractListener() {
+					@Override
+					public void receiveConfigInfo(String configInfo) {
+						received.add(configInfo);
+					}
+				});
+
+		configService.publishConfig(DATA_ID, GROUP_ID, content);
+		Assert.assertTrue(ConfigContentCodec
+				.isEncoded(mockConfigService.getConfig(DATA_ID, GROUP_ID, 5000)));
+		Assert.assertEquals(content, configService.getConfig(DATA_ID, GROUP_ID, 5000));
+		Assert.assertEquals(Collections.singletonList(content), received);
+
+		// Below the threshold
+		configService.publishConfig(DATA_ID, GROUP_ID, CONTENT);
+		Assert.assertEquals(CONTENT, mockConfigService.getConfig(DATA_ID, GROUP_ID, 5000));
+	}
+
+	@Test
+	public void testMalformedContent() throws NacosException {
+		final List<String> received = new ArrayList<String>();
+		((EventPublishingConfigService) configService).addListener(DATA_ID, GROUP_ID,
+				"properties", new AbstractListener() {
+					@Override
+					public void receiveConfigInfo(String configInfo) {
+						received.add(configInfo);
+					}
+				});
+		String malformed = ConfigContentCodec.GZIP_BASE64_HEADER + "H4sI*AAA";
+
+		mockConfigService.publishConfig(DATA_ID, GROUP_ID, malformed);
+
+		// The listener receives it as it is
+		Assert.assertEquals(Collections.singletonList(malformed), received);
+		try {
+			configService.getConfig(DATA_ID, GROUP_ID, 5000);
+			Assert.fail();
+		}
+		catch (NacosException e) {
+			Assert.assertEquals(NacosException.CLIENT_INVALID_PARAM, e.getErrCode());
+		}
+	}
+
 	@Test
 	public void testRemoveListener() throws NacosException {
 		final Listener listener = new AbstractListener() {
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.alibaba.nacos.spring.util.ConfigContentCodec.GZIP_BASE64_HEADER;
+
+/**
+ * {@link ConfigContentCodec} Test
+ *
+ * @see ConfigContentCodec
+ * @since 0.3.6
+ */
+public class ConfigContentCodecTest {
+
+	@Test
+	public void testEncodeAndDecode() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			builder.append("rules[").append(i).append("].name=规则-").append(i)
+					.append('\n');
+		}
+		String content = builder.toString();
+		String encoded = ConfigContentCodec.encode(content, 1024);
+		Assert.assertTrue(ConfigContentCodec.isEncoded(encoded));
+		Assert.assertTrue(encoded.length() < content.length() / 2);
+		Assert.assertEquals(content, ConfigContentCodec.decode(encoded));
+
+		// Every length of the last Base64 quantum, line-wrapped or not
+		int[] paddings = new int[3];
+		for (int length = 2000; length < 2064; length++) {
+			String text = content.substring(0, length);
+			encoded = ConfigContentCodec.encode(text, 0);
+			Assert.assertTrue(ConfigContentCodec.isEncoded(encoded));
+			paddings[encoded.length() - encoded.replace("=", "").length()]++;
+			Assert.assertEquals(text, ConfigContentCodec.decode(encoded));
+			String wrapped = GZIP_BASE64_HEADER
+					+ encoded.substring(GZIP_BASE64_HEADER.length())
+							.replaceAll("(.{76})", "$1\r\n");
+			Assert.assertEquals(text, ConfigContentCodec.decode(wrapped));
+		}
+		for (int padding : paddings) {
+			Assert.assertTrue(padding > 0);
+		}
+	}
+
+	@Test
+	public void testNotEncoded() {
+		Assert.assertNull(ConfigContentCodec.encode(null, 0));
+		Assert.assertNull(ConfigContentCodec.decode(null));
+		Assert.assertEquals("a=b", ConfigContentCodec.encode("a=b", -1));
+		Assert.assertEquals("a=b", ConfigContentCodec.encode("a=b", 3));
+		// Not smaller once encoded
+		Assert.assertEquals("a=b", ConfigContentCodec.encode("a=b", 0));
+		Assert.assertEquals("a=b", ConfigContentCodec.decode("a=b"));
+	}
+
+	@Test
+	public void testSmallerInBytes() throws Exception {
+		// More chars but fewer bytes once encoded, a CJK char is 3 bytes in UTF-8
+		Random random = new Random(0);
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 4000; i++) {
+			builder.append((char) (0x4e00 + random.nextInt(0x400)));
+		}
+		String content = builder.toString();
+		String encoded = ConfigContentCodec.encode(content, 0);
+		Assert.assertTrue(ConfigContentCodec.isEncoded(encoded));
+		Assert.assertTrue(encoded.length() > content.length());
+		Assert.assertTrue(encoded.getBytes("UTF-8").length < content
+				.getBytes("UTF-8").length);
+		Assert.assertEquals(content, ConfigContentCodec.decode(encoded));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformed() {
+		ConfigContentCodec.decode(GZIP_BASE64_HEADER + "H4sI*AAA");
+	}
+
+	@Test(expected = ConfigParseLimitException.class)
+	public void testDecompressionBomb() {
+		char[] zeros = new char[11 * 1024 * 1024];
+		Arrays.fill(zeros, '0');
+		String encoded = ConfigContentCodec.encode(new String(zeros), 0);
+		// 11MB decompressed from about 11KB
+		Assert.assertTrue(encoded.length() < 64 * 1024);
+		ConfigContentCodec.decode(encoded);
+	}
+
+}
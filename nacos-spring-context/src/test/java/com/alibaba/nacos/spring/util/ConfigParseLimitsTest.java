@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.alibaba.nacos.spring.util.ConfigParseLimits.MAX_CONTENT_BYTES_PROPERTY;
+import static com.alibaba.nacos.spring.util.ConfigParseLimits.MAX_DEPTH_PROPERTY;
+import static com.alibaba.nacos.spring.util.ConfigParseLimits.MAX_EXPANSIONS_PROPERTY;
+import static com.alibaba.nacos.spring.util.ConfigParseLimits.MAX_KEYS_PROPERTY;
+
+/**
+ * {@link ConfigParseLimits} Test
+ *
+ * @see ConfigParseLimits
+ * @since 0.3.6
+ */
+public class ConfigParseLimitsTest {
+
+	@Test
+	public void testContentBytes() {
+		StringBuilder content = new StringBuilder("k=");
+		for (int i = 0; i < 3500000; i++) {
+			content.append('中');
+		}
+		// 7 million chars would be accepted if the chars were counted
+		assertRejected(MAX_CONTENT_BYTES_PROPERTY, content.toString(), "properties");
+	}
+
+	@Test
+	public void testKeys() {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			content.append('k').append(i).append("=v\n");
+		}
+		Assert.assertEquals(100000, parse(content.toString(), "properties").size());
+		content.append("k=v\n");
+		assertRejected(MAX_KEYS_PROPERTY, content.toString(), "properties");
+	}
+
+	@Test
+	public void testDepth() {
+		Assert.assertEquals("1", parse(nested("[", 100, "1", "]"), "json")
+				.get("document" + repeat("[0]", 100)));
+		assertRejected(MAX_DEPTH_PROPERTY, nested("[", 101, "1", "]"), "json");
+		assertRejected(MAX_DEPTH_PROPERTY, nested("{\"a\":", 101, "1", "}"), "json");
+		assertRejected(MAX_DEPTH_PROPERTY, nested("[", 101, "1", "]"), "yaml");
+		assertRejected(MAX_DEPTH_PROPERTY, nested("<a>", 101, "1", "</a>"), "xml");
+	}
+
+	@Test
+	public void testYamlAliases() {
+		Map<String, Object> properties = parse(
+				"a: &a [1, 2]\nb: *a\nc: {<<: {d: 1}}", "yaml");
+		Assert.assertEquals("2", properties.get("b[1]"));
+
+		// Each level doubles the nodes expanded, 2^20 of the last one
+		StringBuilder content = new StringBuilder("a0: &a0 [x, x]\n");
+		for (int i = 1; i <= 20; i++) {
+			content.append('a').append(i).append(": &a").append(i).append(" [*a")
+					.append(i - 1).append(", *a").append(i - 1).append("]\n");
+		}
+		assertRejected(MAX_EXPANSIONS_PROPERTY, content.toString(), "yaml");
+
+		// The aliases nest the anchored nodes as deep as they are
+		assertRejected(MAX_DEPTH_PROPERTY, "a: &a " + nested("[", 60, "1", "]")
+				+ "\nb: " + nested("[", 60, "*a", "]"), "yaml");
+	}
+
+	@Test
+	public void testXmlEntities() {
+		StringBuilder content = new StringBuilder(
+				"<?xml version=\"1.0\"?>\n<!DOCTYPE a [\n<!ENTITY e0 \"lol\">\n");
+		for (int i = 1; i <= 9; i++) {
+			content.append("<!ENTITY e").append(i).append(" \"");
+			for (int j = 0; j < 10; j++) {
+				content.append("&e").append(i - 1).append(';');
+			}
+			content.append("\">\n");
+		}
+		content.append("]>\n<a><b>&e9;</b></a>");
+		assertRejected(MAX_EXPANSIONS_PROPERTY, content.toString(), "xml");
+
+		Assert.assertEquals("lol", parse("<!DOCTYPE a [<!ENTITY e \"lol\">]><a><b>&e;</b></a>",
+				"xml").get("a.b"));
+	}
+
+	private static Map<String, Object> parse(String content, String type) {
+		return ConfigParseUtils.toPropertyMap("limits", "test", content, type);
+	}
+
+	private static void assertRejected(String limitProperty, String content,
+			String type) {
+		try {
+			parse(content, type);
+			Assert.fail("The " + type + " content should be rejected by "
+					+ limitProperty);
+		}
+		catch (ConfigParseLimitException e) {
+			Assert.assertEquals(limitProperty, e.getLimitProperty());
+		}
+	}
+
+	private static String nested(String open, int depth, String value, String close) {
+		return repeat(open, depth) + value + repeat(close, depth);
+	}
+
+	private static String repeat(String text, int times) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			builder.append(text);
+		}
+		return builder.toString();
+	}
+
+}
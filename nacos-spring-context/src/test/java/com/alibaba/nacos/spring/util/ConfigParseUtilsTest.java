@@ -1,8 +1,10 @@
 package com.alibaba.nacos.spring.util;
 
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.nacos.spring.core.env.NacosPropertySource;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -65,6 +67,85 @@ public class ConfigParseUtilsTest {
 		System.out.println(properties);
 	}
 
+	@Test
+	public void testParsedConfigShared() {
+		String content = "app.name=nacos-spring\napp.time=" + System.nanoTime();
+		long hits = ConfigParseUtils.getCacheHits();
+		long misses = ConfigParseUtils.getCacheMisses();
+
+		Properties properties = ConfigParseUtils.toProperties(content, "properties");
+		Assert.assertEquals(misses + 1, ConfigParseUtils.getCacheMisses());
+
+		// The copy of the shared result is mutable
+		properties.setProperty("app.name", "changed");
+
+		Properties anotherProperties = ConfigParseUtils.toProperties(dataId, group,
+				content, "properties");
+		Assert.assertEquals(hits + 1, ConfigParseUtils.getCacheHits());
+		Assert.assertEquals(misses + 1, ConfigParseUtils.getCacheMisses());
+		Assert.assertEquals("nacos-spring", anotherProperties.getProperty("app.name"));
+		Assert.assertNotSame(properties, anotherProperties);
+	}
+
+	@Test
+	public void testToPropertyMap() {
+		String content = "app.name=nacos-spring\napp.time=" + System.nanoTime();
+		Map<String, Object> properties = ConfigParseUtils.toPropertyMap(dataId, group,
+				content, "properties");
+		Assert.assertEquals("nacos-spring", properties.get("app.name"));
+		Assert.assertSame(properties, ConfigParseUtils.toPropertyMap("", "", content,
+				"properties"));
+
+		// Taken as it is, without being copied
+		NacosPropertySource nacosPropertySource = new NacosPropertySource(dataId, group,
+				"app", content, "properties");
+		Assert.assertSame(properties, nacosPropertySource.getSource());
+
+		try {
+			properties.put("app.name", "changed");
+			Assert.fail();
+		}
+		catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	@Test
+	public void testToPropertyMapOfProfiles() {
+		String content = "app.time: " + System.nanoTime() + "\napp.name: nacos\n"
+				+ "---\nspring.profiles: dev\napp.name: nacos-dev\n";
+		Map<String, Object> dev = ConfigParseUtils.toPropertyMap(dataId, group, content,
+				"yaml", new String[] { "dev" });
+		Map<String, Object> prod = ConfigParseUtils.toPropertyMap(dataId, group,
+				content, "yaml", new String[] { "prod" });
+		Assert.assertEquals("nacos-dev", dev.get("app.name"));
+		Assert.assertEquals("nacos", prod.get("app.name"));
+		Assert.assertSame(dev, ConfigParseUtils.toPropertyMap(dataId, group, content,
+				"yaml", new String[] { "dev" }));
+
+		// The profiles are ignored by the ConfigParse not selecting documents
+		content = "app.time=" + System.nanoTime();
+		Assert.assertSame(
+				ConfigParseUtils.toPropertyMap(dataId, group, content, "properties"),
+				ConfigParseUtils.toPropertyMap(dataId, group, content, "properties",
+						new String[] { "dev" }));
+	}
+
+	@Test
+	public void testStreamingConfigParse() {
+		Properties properties = new AbstractStreamingConfigParse() {
+			@Override
+			public void parse(String configText, Sink sink) {
+				sink.put("text", configText);
+			}
+
+			@Override
+			public String processType() {
+				return "text";
+			}
+		}.parse("nacos");
+		Assert.assertEquals("nacos", properties.getProperty("text"));
+	}
+
 	public static class CustomerParse extends AbstractConfigParse {
 
 		@Override
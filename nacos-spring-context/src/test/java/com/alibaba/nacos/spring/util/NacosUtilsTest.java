@@ -17,12 +17,15 @@
 package com.alibaba.nacos.spring.util;
 
 import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
 
 import com.alibaba.nacos.api.annotation.NacosInjected;
 import com.alibaba.nacos.api.annotation.NacosProperties;
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.springframework.beans.PropertyValues;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -57,4 +60,48 @@ public class NacosUtilsTest {
 		Assert.assertEquals(expectedValue, NacosUtils.isDefault(nacosProperties));
 
 	}
+
+	@Test
+	public void testResolvePropertyValuesOfContainers() {
+		PropertyValues propertyValues = NacosUtils.resolvePropertyValues(
+				new Containers(), "names=a,b\nusers[0]=mercy\nusers[1]=hxy1991\n"
+						+ "usersCount=2\nages.mercy=18\nagesOfAll.nacos=2",
+				"properties");
+
+		Assert.assertEquals("a", propertyValues.getPropertyValue("names[0]").getValue());
+		Assert.assertEquals("b", propertyValues.getPropertyValue("names[1]").getValue());
+		Assert.assertEquals("mercy",
+				propertyValues.getPropertyValue("users[0]").getValue());
+		Assert.assertEquals("hxy1991",
+				propertyValues.getPropertyValue("users[1]").getValue());
+		Assert.assertEquals("18",
+				propertyValues.getPropertyValue("ages[mercy]").getValue());
+		Assert.assertNull(propertyValues.getPropertyValue("usersCount"));
+		Assert.assertNull(propertyValues.getPropertyValue("ages[nacos]"));
+		Assert.assertEquals(5, propertyValues.getPropertyValues().length);
+	}
+
+	@Test
+	public void testKeyIndexSharedByBinds() {
+		String content = "names=a,b\nages.mercy=18";
+		ParsedProperties properties = NacosUtils.toPropertyMap("app", "group", content,
+				"properties");
+		PropertyKeyIndex keyIndex = properties.getKeyIndex();
+
+		NacosUtils.resolvePropertyValues(new Containers(), "", "app", "group", content,
+				"properties");
+
+		Assert.assertSame(keyIndex, NacosUtils
+				.toPropertyMap("app", "group", content, "properties").getKeyIndex());
+	}
+
+	private static class Containers {
+
+		private List<String> names;
+
+		private List<String> users;
+
+		private Map<String, String> ages;
+
+	}
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link PropertiesDiff} Test
+ *
+ * @see PropertiesDiff
+ */
+public class PropertiesDiffTest {
+
+	@Test
+	public void testDiff() {
+		Map<String, Object> oldProperties = new HashMap<String, Object>();
+		oldProperties.put("app.name", "nacos");
+		oldProperties.put("app.port", "8848");
+		oldProperties.put("app.env", "dev");
+
+		Map<String, Object> newProperties = new HashMap<String, Object>();
+		newProperties.put("app.name", "nacos");
+		newProperties.put("app.port", "9090");
+		newProperties.put("app.url", "http://nacos.io");
+
+		PropertiesDiff diff = PropertiesDiff.diff(oldProperties, newProperties);
+
+		Assert.assertFalse(diff.isEmpty());
+		Assert.assertEquals(Collections.singleton("app.url"), diff.getAddedKeys());
+		Assert.assertEquals(Collections.singleton("app.port"), diff.getChangedKeys());
+		Assert.assertEquals(Collections.singleton("app.env"), diff.getRemovedKeys());
+		Assert.assertEquals(
+				new HashSet<String>(Arrays.asList("app.url", "app.port", "app.env")),
+				diff.getKeys());
+	}
+
+	@Test
+	public void testDiffWithoutOldProperties() {
+		Map<String, Object> newProperties = Collections
+				.<String, Object> singletonMap("app.name", "nacos");
+
+		PropertiesDiff diff = PropertiesDiff.diff(null, newProperties);
+
+		Assert.assertEquals(Collections.singleton("app.name"), diff.getAddedKeys());
+		Assert.assertTrue(diff.getChangedKeys().isEmpty());
+		Assert.assertTrue(diff.getRemovedKeys().isEmpty());
+	}
+
+	@Test
+	public void testDiffUnchanged() {
+		Map<String, Object> oldProperties = new HashMap<String, Object>();
+		oldProperties.put("app.name", "nacos");
+		Map<String, Object> newProperties = new HashMap<String, Object>(oldProperties);
+
+		Assert.assertTrue(PropertiesDiff.diff(oldProperties, newProperties).isEmpty());
+		Assert.assertTrue(PropertiesDiff.diff(oldProperties, oldProperties).isEmpty());
+		Assert.assertTrue(PropertiesDiff.diff(oldProperties, oldProperties).getKeys()
+				.isEmpty());
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link PropertyKeyIndex} Test
+ *
+ * @see PropertyKeyIndex
+ */
+public class PropertyKeyIndexTest {
+
+	@Test
+	public void testGetSubProperties() {
+		Properties properties = new Properties();
+		properties.setProperty("user.name", "mercy");
+		properties.setProperty("user.age", "18");
+		properties.setProperty("user", "all");
+		properties.setProperty("users[0]", "hxy1991");
+		properties.setProperty("app.name", "nacos-spring");
+
+		PropertyKeyIndex keyIndex = new PropertyKeyIndex(properties);
+
+		Assert.assertEquals(Arrays.asList("user", "user.age", "user.name", "users[0]"),
+				keyIndex.getKeys("user"));
+		Assert.assertEquals(Arrays.asList("users[0]"), keyIndex.getKeys("users["));
+		Assert.assertTrue(keyIndex.getKeys("zoo").isEmpty());
+		Assert.assertTrue(keyIndex.getKeys("a.").isEmpty());
+
+		Map<String, Object> subProperties = keyIndex.getSubProperties("user.");
+		Assert.assertEquals(Arrays.asList("age", "name"),
+				Arrays.asList(subProperties.keySet().toArray()));
+		Assert.assertEquals("mercy", subProperties.get("name"));
+		Assert.assertEquals("18", subProperties.get("age"));
+
+		Assert.assertEquals(5, keyIndex.getSubProperties("").size());
+	}
+
+}
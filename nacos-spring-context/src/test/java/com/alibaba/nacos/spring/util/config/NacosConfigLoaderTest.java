@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.spring.test.MockNacosServiceFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.springframework.core.env.StandardEnvironment;
+
+import static com.alibaba.nacos.api.PropertyKeyConst.NAMESPACE;
+import static com.alibaba.nacos.api.common.Constants.DEFAULT_GROUP;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * {@link NacosConfigLoader} Test
+ *
+ * @see NacosConfigLoader
+ */
+public class NacosConfigLoaderTest {
+
+	private static final String DATA_ID = "app";
+
+	@Test
+	public void testConcurrentLoadsOfNamespaces() throws Exception {
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+		final NacosConfigLoader loader = new NacosConfigLoader(
+				new StandardEnvironment());
+		loader.setNacosServiceFactory(new MockNacosServiceFactory() {
+			@Override
+			public ConfigService createConfigService(Properties properties)
+					throws NacosException {
+				String namespace = properties.getProperty(NAMESPACE);
+				ConfigService configService = Mockito.mock(ConfigService.class);
+				Mockito.when(configService.getConfig(anyString(), anyString(),
+						anyLong())).thenReturn(namespace);
+				try {
+					// Both loads get their ConfigService before either reads config
+					barrier.await();
+				}
+				catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+				return configService;
+			}
+		});
+
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		try {
+			for (int i = 0; i < 100; i++) {
+				List<Future<String>> futures = new ArrayList<Future<String>>();
+				for (final String namespace : new String[] { "dev", "test" }) {
+					futures.add(executorService.submit(new Callable<String>() {
+						@Override
+						public String call() {
+							Properties properties = new Properties();
+							properties.setProperty(NAMESPACE, namespace);
+							return loader.load(DATA_ID, DEFAULT_GROUP, properties);
+						}
+					}));
+				}
+				Assert.assertEquals("dev", futures.get(0).get());
+				Assert.assertEquals("test", futures.get(1).get());
+			}
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+		Assert.assertNotNull(loader.getConfigService());
+	}
+}
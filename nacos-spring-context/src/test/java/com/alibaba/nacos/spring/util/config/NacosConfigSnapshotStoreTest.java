@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.alibaba.nacos.api.PropertyKeyConst.NAMESPACE;
+import static com.alibaba.nacos.api.PropertyKeyConst.SERVER_ADDR;
+
+/**
+ * {@link NacosConfigSnapshotStore} Test
+ *
+ * @see NacosConfigSnapshotStore
+ */
+public class NacosConfigSnapshotStoreTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File directory;
+
+	private NacosConfigSnapshotStore store;
+
+	@Before
+	public void init() throws IOException {
+		directory = temporaryFolder.newFolder("snapshot");
+		store = new NacosConfigSnapshotStore(directory, 1024);
+	}
+
+	@After
+	public void destroy() {
+		store.close();
+	}
+
+	@Test
+	public void testPutAndGet() throws IOException {
+		Assert.assertNull(store.get("app"));
+
+		store.put("app", "user.name=Mercy");
+		store.put("app", "user.name=mercy");
+		store.put("db", "db.url=jdbc:h2:mem:test");
+		Assert.assertEquals("user.name=mercy", store.get("app"));
+
+		long length = store.getFile().length();
+		store.put("app", "user.name=mercy");
+		Assert.assertEquals(length, store.getFile().length());
+
+		reopen();
+		Assert.assertEquals("user.name=mercy", store.get("app"));
+		Assert.assertEquals("db.url=jdbc:h2:mem:test", store.get("db"));
+	}
+
+	@Test
+	public void testPutCollidingContent() throws IOException {
+		// The records of both contents have the same length and CRC32
+		store.put("app", "k=xs4ibwwl");
+		store.put("app", "k=adwoqc8j");
+		Assert.assertEquals("k=adwoqc8j", store.get("app"));
+
+		reopen();
+		Assert.assertEquals("k=adwoqc8j", store.get("app"));
+	}
+
+	@Test
+	public void testTornTailTruncated() throws IOException {
+		store.put("app", "user.name=mercy");
+		long length = store.getFile().length();
+		store.put("app", "user.name=hxy1991");
+		store.close();
+
+		// A crash in the middle of the last write
+		RandomAccessFile file = new RandomAccessFile(store.getFile(), "rw");
+		try {
+			file.setLength(file.length() - 3);
+		}
+		finally {
+			file.close();
+		}
+
+		store = new NacosConfigSnapshotStore(directory, 1024);
+		Assert.assertEquals("user.name=mercy", store.get("app"));
+		Assert.assertEquals(length, store.getFile().length());
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			content.append("user.age=").append(i).append('\n');
+			store.put("app", content.toString());
+			store.put("db", "db.port=" + i);
+			Assert.assertTrue(store.getFile().length() < 1024
+					|| store.getFile().length() < 2 * (content.length() + 256));
+		}
+		Assert.assertEquals(content.toString(), store.get("app"));
+		Assert.assertEquals("db.port=99", store.get("db"));
+		// Only the snapshot and its lock, the compacted files have replaced it
+		Assert.assertEquals(2, directory.list().length);
+
+		reopen();
+		Assert.assertEquals(content.toString(), store.get("app"));
+		Assert.assertEquals("db.port=99", store.get("db"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testLocked() throws IOException {
+		new NacosConfigSnapshotStore(directory);
+	}
+
+	@Test
+	public void testAcquireAndRelease() throws IOException {
+		store.close();
+		NacosConfigSnapshotStore acquired = NacosConfigSnapshotStore.acquire(directory);
+		Assert.assertSame(acquired, NacosConfigSnapshotStore.acquire(directory));
+
+		acquired.release();
+		acquired.put("app", "user.name=mercy");
+		Assert.assertEquals("user.name=mercy", acquired.get("app"));
+
+		// The last release closes the store and unlocks the directory
+		acquired.release();
+		Assert.assertNull(acquired.get("app"));
+		store = new NacosConfigSnapshotStore(directory, 1024);
+		Assert.assertEquals("user.name=mercy", store.get("app"));
+	}
+
+	@Test
+	public void testKey() {
+		Properties properties = new Properties();
+		properties.setProperty(NAMESPACE, "dev");
+		properties.setProperty(SERVER_ADDR, "127.0.0.1:8848");
+		Assert.assertEquals("dev|127.0.0.1:8848|DEFAULT_GROUP|app",
+				NacosConfigSnapshotStore.key("app", "DEFAULT_GROUP", properties));
+	}
+
+	private void reopen() throws IOException {
+		store.close();
+		store = new NacosConfigSnapshotStore(directory, 1024);
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link DefaultJsonConfigParse} Test
+ *
+ * @see DefaultJsonConfigParse
+ * @see JsonFlattener
+ */
+public class DefaultJsonConfigParseTest {
+
+	private static final String[] CONTENTS = { "", " \n ", "{}", "[]",
+			"{\"app\":{\"name\":\"nacos\",\"port\":8080,\"enabled\":true,\"debug\":false}}",
+			"{\"list\":[\"a\",[\"b\",\"c\"],{\"name\":\"d\",\"ports\":[1,2]}],\"e\":null}",
+			"{\"empty\":{},\"emptyList\":[],\"nested\":{\"map\":{\"deep\":\"x: y\"}}}",
+			"{\"[0]\":\"index\",\"a\":{\"[1]\":\"x\"}}", "[1,\"two\",{\"three\":3}]",
+			"\"text\"", "42", "null", "{\"unicode\":\"\\u4e2d\\u6587\",\"q\":\"\\\"\\\\\"}" };
+
+	@Test
+	public void testSameAsYaml() {
+		DefaultJsonConfigParse parse = new DefaultJsonConfigParse();
+		for (String content : CONTENTS) {
+			Assert.assertEquals(content, parseAsYaml(content), parse.parse(content));
+		}
+	}
+
+	@Test
+	public void testEdgeCases() {
+		Properties properties = new DefaultJsonConfigParse().parse(
+				"\uFEFF{\t\"url\":\"http:\\/\\/127.0.0.1\",\"ratio\":1.50,\"big\":-1E+3,"
+						+ "\"tab\":\"a\\tb\",\"\":\"blank\"}");
+		Assert.assertEquals("http://127.0.0.1", properties.get("url"));
+		Assert.assertEquals("1.50", properties.get("ratio"));
+		Assert.assertEquals("-1E+3", properties.get("big"));
+		Assert.assertEquals("a\tb", properties.get("tab"));
+		Assert.assertEquals("blank", properties.get(""));
+	}
+
+	@Test
+	public void testInvalid() {
+		String[] contents = { "{", "{\"a\":}", "{\"a\":1,}", "[1 2]", "{\"a\":01}",
+				"{a:1}", "{\"a\":\"b}", "{\"a\":tru}", "{\"a\":\"\\x\"}", "{} {}",
+				"{\"a\":1,\"a\":2}", "{\"a\":\"\n\"}", "{\"a\":-}", "{\"a\":1.}",
+				"{\"a\":\"\\u+041\"}", "{\"a\":\"\\u-041\"}", "{\"a\":\"\\u04\"}" };
+		for (String content : contents) {
+			try {
+				new DefaultJsonConfigParse().parse(content);
+				Assert.fail(content);
+			}
+			catch (ConfigParseException ex) {
+				Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("line 1"));
+			}
+		}
+	}
+
+	private static Properties parseAsYaml(String content) {
+		final Properties result = new Properties();
+		DefaultYamlConfigParse.process(new DefaultYamlConfigParse.MatchCallback() {
+			@Override
+			public void process(Properties properties, Map<String, Object> map) {
+				result.putAll(properties);
+			}
+		}, DefaultYamlConfigParse.createYaml(), content);
+		return result;
+	}
+
+}
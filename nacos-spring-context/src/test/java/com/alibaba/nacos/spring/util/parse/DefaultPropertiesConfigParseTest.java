@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import com.alibaba.nacos.spring.util.StreamingConfigParse;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link DefaultPropertiesConfigParse} Test
+ *
+ * @see DefaultPropertiesConfigParse
+ * @see PropertiesScanner
+ */
+public class DefaultPropertiesConfigParseTest {
+
+	/**
+	 * The chars of the rules of the properties text, the other ones are plain
+	 */
+	private static final String ALPHABET = "ab \t\f\r\n\\=:#!utnrf0aF9g中";
+
+	private static final String[] CONTENTS = { "", "  \n\t\n", "a=b", "a = b\nc:d\ne f",
+			"# comment\n! comment\na=b # not a comment", "a=b\\\n   c\\\r\n  d\\\re",
+			"a\\=b\\:c\\ d=e\\tf\\ng\\u4e2D\\x", "a=\\\\\nb==c::\n  =empty key",
+			"a=b\\", "a=b\\\\", "a\\\n#not a comment", "\\\n#comment\nb=c",
+			"a=b\r\nc=d\re=f", "key", "a=\\uFFFF\\u0000", "dup=1\ndup=2" };
+
+	private final DefaultPropertiesConfigParse parse = new DefaultPropertiesConfigParse();
+
+	@Test
+	public void testSameAsPropertiesLoad() throws IOException {
+		for (String content : CONTENTS) {
+			assertSameAsPropertiesLoad(content);
+			Assert.assertEquals(content, load(content), parse.parse(content));
+		}
+	}
+
+	@Test
+	public void testFuzzSameAsPropertiesLoad() throws IOException {
+		Random random = new Random(20200320);
+		char[] chars = new char[64];
+		for (int i = 0; i < 50000; i++) {
+			int length = random.nextInt(chars.length);
+			for (int j = 0; j < length; j++) {
+				chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			}
+			assertSameAsPropertiesLoad(new String(chars, 0, length));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedUnicodeEscape() {
+		parse.parse("a=\\u12");
+	}
+
+	private static void assertSameAsPropertiesLoad(String content) throws IOException {
+		Properties expected;
+		try {
+			expected = load(content);
+		}
+		catch (IllegalArgumentException ex) {
+			try {
+				scan(content);
+				Assert.fail(escape(content));
+			}
+			catch (IllegalArgumentException expectedException) {
+			}
+			return;
+		}
+		Assert.assertEquals(escape(content), expected, scan(content));
+	}
+
+	private static Properties load(String content) throws IOException {
+		Properties properties = new Properties();
+		properties.load(new StringReader(content));
+		return properties;
+	}
+
+	private static Map<String, Object> scan(String content) {
+		final Map<String, Object> properties = new HashMap<String, Object>();
+		new PropertiesScanner(new StreamingConfigParse.Sink() {
+			@Override
+			public void put(String key, Object value) {
+				properties.put(key, value);
+			}
+		}).scan(content);
+		return properties;
+	}
+
+	private static String escape(String content) {
+		return content.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n")
+				.replace("\t", "\\t").replace("\f", "\\f");
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link DefaultXmlConfigParse} Test
+ *
+ * @see DefaultXmlConfigParse
+ * @see XmlStreamFlattener
+ */
+public class DefaultXmlConfigParseTest {
+
+	private final DefaultXmlConfigParse parse = new DefaultXmlConfigParse();
+
+	@Test
+	public void testParse() {
+		Properties properties = parse.parse("<?xml version=\"1.0\"?>\n<!-- app -->\n"
+				+ "<app>\n  <name>nacos</name>\n  <db><url> jdbc:h2:mem </url><pool/></db>\n"
+				+ "  <empty><!-- none --></empty><cdata><![CDATA[<v>]]></cdata>\n"
+				+ "  <escaped>&amp;&lt;</escaped><x:ns xmlns:x=\"u\">1</x:ns>\n</app>");
+		Assert.assertEquals("nacos", properties.getProperty("app.name"));
+		Assert.assertEquals(" jdbc:h2:mem ", properties.getProperty("app.db.url"));
+		Assert.assertEquals("", properties.getProperty("app.empty"));
+		Assert.assertEquals("<v>", properties.getProperty("app.cdata"));
+		Assert.assertEquals("&<", properties.getProperty("app.escaped"));
+		Assert.assertEquals("1", properties.getProperty("app.x:ns"));
+		Assert.assertEquals(6, properties.size());
+
+		Assert.assertEquals("text", parse.parse("<app>text</app>").getProperty("app"));
+		Assert.assertTrue(parse.parse("<app/>").isEmpty());
+	}
+
+	@Test
+	public void testRepeatedElements() {
+		Properties properties = parse.parse("<xmlSign><Students>"
+				+ "<Student><Name>lct-1</Name><Tel>1</Tel><Tel>2</Tel><Tel>3</Tel></Student>"
+				+ "<Student><Name>lct-2</Name></Student><Student>lct-3</Student>"
+				+ "<Student/><Student><Name>lct-5</Name></Student>"
+				+ "</Students><Class>major</Class></xmlSign>");
+		Assert.assertEquals("lct-1", properties.getProperty("xmlSign.Students[0].Name"));
+		Assert.assertEquals("1", properties.getProperty("xmlSign.Students[0][0]"));
+		Assert.assertEquals("3", properties.getProperty("xmlSign.Students[0][1]"));
+		// The second one of the repeated elements is skipped
+		Assert.assertEquals("lct-3", properties.getProperty("xmlSign.Students[1]"));
+		Assert.assertEquals("lct-5", properties.getProperty("xmlSign.Students[3].Name"));
+		Assert.assertEquals("major", properties.getProperty("xmlSign.Class"));
+		Assert.assertEquals(6, properties.size());
+	}
+
+	@Test(expected = ConfigParseException.class)
+	public void testMalformed() {
+		parse.parse("<app><name>nacos</app>");
+	}
+
+}
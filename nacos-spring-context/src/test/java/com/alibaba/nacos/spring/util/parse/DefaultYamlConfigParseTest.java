@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacos.spring.util.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.alibaba.nacos.spring.util.StreamingConfigParse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.yaml.snakeyaml.parser.ParserException;
+
+/**
+ * {@link DefaultYamlConfigParse} Test
+ *
+ * @see DefaultYamlConfigParse
+ * @see YamlEventFlattener
+ */
+public class DefaultYamlConfigParseTest {
+
+	private static final String[] CONTENTS = { "",
+			"app:\n  name: nacos\n  port: 8080\n  ratio: 0.5\n  enabled: true\n",
+			"app:\n  empty:\n  tilde: ~\n  quoted: 'true'\n  date: 2020-01-01\n",
+			"list:\n  - a\n  - b\n  -\n    - c\n    - d\n  - name: e\n    port: 1\n",
+			"nested:\n  map:\n    deep:\n      value: \"x: y\"\n  emptyMap: {}\n  emptyList: []\n",
+			"1: one\ntrue: yes\nkeys:\n  2: two\n  '3': three\n",
+			"[a, b, {c: d}]\n", "just a text\n", "42\n", "~\n",
+			"app:\n  name: first\n  port: 1\n---\napp:\n  name: second\n---\n",
+			"text: |\n  line 1\n  line 2\nfolded: >\n  a\n  b\n",
+			"defaults: &defaults\n  port: 1\napp:\n  <<: *defaults\n  name: nacos\n",
+			"app: &app nacos\nname: *app\n", "value: !!str 123\n",
+			"? [a, b]\n: complex\n" };
+
+	@Test
+	public void testSameAsConstructedDocuments() {
+		DefaultYamlConfigParse parse = new DefaultYamlConfigParse();
+		for (String content : CONTENTS) {
+			Assert.assertEquals(content, construct(content), parse.parse(content));
+		}
+	}
+
+	@Test
+	public void testFlattenedFromEvents() {
+		final Properties properties = new Properties();
+		new YamlEventFlattener(new StreamingConfigParse.Sink() {
+			@Override
+			public void put(String key, Object value) {
+				properties.put(key, value);
+			}
+		}).flatten(DefaultYamlConfigParse.createYaml(),
+				"list:\n  - a\n  - name: e\n    ports: [1, 2]\n  - ~\nport: 8080\n");
+		Assert.assertEquals("a", properties.get("list[0]"));
+		Assert.assertEquals("e", properties.get("list[1].name"));
+		Assert.assertEquals("2", properties.get("list[1].ports[1]"));
+		Assert.assertEquals("", properties.get("list[2]"));
+		Assert.assertEquals("8080", properties.get("port"));
+		Assert.assertEquals(6, properties.size());
+	}
+
+	@Test(expected = YamlEventFlattener.UnsupportedYamlException.class)
+	public void testAliasNotFlattened() {
+		new YamlEventFlattener(new StreamingConfigParse.Sink() {
+			@Override
+			public void put(String key, Object value) {
+			}
+		}).flatten(DefaultYamlConfigParse.createYaml(), "app: &app nacos\nname: *app\n");
+	}
+
+	@Test
+	public void testNothingPutBeforeConstructed() {
+		final List<String> keys = new ArrayList<String>();
+		new DefaultYamlConfigParse().parse("name: nacos\napp: &app x\nalias: *app\n",
+				null, new StreamingConfigParse.Sink() {
+					@Override
+					public void put(String key, Object value) {
+						keys.add(key);
+					}
+				});
+		// The keys flattened before the alias are put by the constructed documents only
+		Assert.assertEquals(3, keys.size());
+		Assert.assertEquals("name", keys.get(0));
+	}
+
+	@Test
+	public void testDuplicateKey() {
+		String[] contents = { "app:\n  name: a\n  name: b\n",
+				"list:\n  - port: 1\n    port: 2\n", "1: a\n1: b\n" };
+		for (String content : contents) {
+			try {
+				new DefaultYamlConfigParse().parse(content);
+				Assert.fail(content);
+			}
+			catch (ParserException ex) {
+				Assert.assertTrue(ex.getMessage().contains("Duplicate key"));
+			}
+		}
+	}
+
+	@Test
+	public void testReusedConcurrently() throws Exception {
+		final DefaultYamlConfigParse parse = new DefaultYamlConfigParse();
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executorService.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						for (int j = 0; j < 200; j++) {
+							String content = CONTENTS[j % CONTENTS.length];
+							if (!construct(content).equals(parse.parse(content))) {
+								return false;
+							}
+							try {
+								// Fails in the middle of constructing the documents
+								parse.parse("a: &a 1\nb: *a\nb: 2\n");
+								return false;
+							}
+							catch (ParserException expected) {
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> future : futures) {
+				Assert.assertTrue(future.get());
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void testProfiles() {
+		String content = "app:\n  name: nacos\n  port: 1\n"
+				+ "---\nspring.profiles: dev\napp:\n  port: 2\n  debug: true\n"
+				+ "---\napp:\n  port: 3\nspring:\n  profiles: prod, test\n"
+				+ "---\nspring:\n  profiles: [\"!prod\"]\napp:\n  log: verbose\n";
+
+		Properties dev = parse(content, "dev");
+		Assert.assertEquals("nacos", dev.get("app.name"));
+		Assert.assertEquals("2", dev.get("app.port"));
+		Assert.assertEquals("true", dev.get("app.debug"));
+		Assert.assertEquals("verbose", dev.get("app.log"));
+		Assert.assertEquals("dev", dev.get("spring.profiles"));
+
+		Properties prod = parse(content, "prod");
+		Assert.assertEquals("3", prod.get("app.port"));
+		Assert.assertNull(prod.get("app.debug"));
+		Assert.assertNull(prod.get("app.log"));
+
+		Properties defaults = parse(content, "default");
+		Assert.assertEquals("1", defaults.get("app.port"));
+		Assert.assertEquals("verbose", defaults.get("app.log"));
+
+		// All of them without the active profiles
+		Properties all = new DefaultYamlConfigParse().parse(content);
+		Assert.assertEquals(construct(content), all);
+		Assert.assertEquals("3", all.get("app.port"));
+	}
+
+	@Test
+	public void testProfilesSkippedFromEvents() {
+		// The duplicate key and the alias of the document not selected aren't parsed
+		String content = "app:\n  port: 1\n"
+				+ "---\nspring.profiles: prod\napp:\n  port: 2\n  port: 3\n"
+				+ "---\nspring.profiles: test\nname: *undefined\n";
+		Assert.assertEquals("1", parse(content, "dev").get("app.port"));
+		try {
+			new DefaultYamlConfigParse().parse(content);
+			Assert.fail("The duplicate key should be parsed");
+		}
+		catch (ParserException expected) {
+		}
+	}
+
+	@Test
+	public void testProfilesOfConstructedDocuments() {
+		String content = "defaults: &defaults\n  port: 1\napp:\n  <<: *defaults\n"
+				+ "---\nspring.profiles: dev\napp:\n  <<: {port: 3}\n"
+				+ "---\nspring.profiles: test\nbase: &base 2\napp:\n  port: *base\n";
+		Properties properties = parse(content, "test");
+		Assert.assertEquals("2", properties.get("app.port"));
+		Assert.assertEquals("2", properties.get("base"));
+		Assert.assertEquals("1", properties.get("defaults.port"));
+	}
+
+	private static Properties parse(String content, String... activeProfiles) {
+		final Properties properties = new Properties();
+		new DefaultYamlConfigParse().parse(content, activeProfiles,
+				new StreamingConfigParse.Sink() {
+					@Override
+					public void put(String key, Object value) {
+						properties.put(key, value);
+					}
+				});
+		return properties;
+	}
+
+	private static Properties construct(String content) {
+		final Properties result = new Properties();
+		DefaultYamlConfigParse.process(new DefaultYamlConfigParse.MatchCallback() {
+			@Override
+			public void process(Properties properties, Map<String, Object> map) {
+				result.putAll(properties);
+			}
+		}, DefaultYamlConfigParse.createYaml(), content);
+		return result;
+	}
+
+}